@@ -1,16 +1,102 @@
 package com.sunbeam.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
 public class AsyncConfig implements AsyncConfigurer {
 
+    @Value("${app.storage.upload.pool-size:8}")
+    private int uploadPoolSize;
+
+    @Value("${app.storage.upload.queue-capacity:64}")
+    private int uploadQueueCapacity;
+
+    @Value("${app.certificate.worker.pool-size:2}")
+    private int certificatePoolSize;
+
+    @Value("${app.certificate.worker.queue-capacity:10}")
+    private int certificateQueueCapacity;
+
+    @Value("${app.email.smtp.pool-size:3}")
+    private int smtpPoolSize;
+
+    @Value("${app.dashboard.stream.pool-size:4}")
+    private int dashboardStreamPoolSize;
+
+    /**
+     * Executor used to push document proofs to S3 in parallel. When the queue
+     * is full the submitting request thread runs the upload itself, which
+     * throttles callers instead of rejecting them.
+     */
+    @Bean(name = "proofUploadExecutor")
+    public ThreadPoolTaskExecutor proofUploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(uploadPoolSize);
+        executor.setMaxPoolSize(uploadPoolSize);
+        executor.setQueueCapacity(uploadQueueCapacity);
+        executor.setThreadNamePrefix("ProofUpload-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers that render certificates queued by CertificateJobService. The
+     * poller only claims as many jobs as fit, so rejections are the exception;
+     * a rejected job is picked up again once its lease expires.
+     */
+    @Bean(name = "certificateExecutor")
+    public ThreadPoolTaskExecutor certificateExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(certificatePoolSize);
+        executor.setMaxPoolSize(certificatePoolSize);
+        executor.setQueueCapacity(certificateQueueCapacity);
+        executor.setThreadNamePrefix("Certificate-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * One thread per pooled SMTP connection. The outbox dispatcher waits for
+     * its batch, so the queue never holds more than one batch of slices.
+     */
+    @Bean(name = "mailExecutor")
+    public ThreadPoolTaskExecutor mailExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(smtpPoolSize);
+        executor.setMaxPoolSize(smtpPoolSize);
+        executor.setThreadNamePrefix("Mail-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes buffered SSE events to dashboard subscribers. Each subscriber has
+     * at most one drain task queued or running, so the queue is bounded by
+     * app.dashboard.stream.max-subscribers.
+     */
+    @Bean(name = "dashboardStreamExecutor")
+    public ThreadPoolTaskExecutor dashboardStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(dashboardStreamPoolSize);
+        executor.setMaxPoolSize(dashboardStreamPoolSize);
+        executor.setThreadNamePrefix("DashboardStream-");
+        executor.initialize();
+        return executor;
+    }
+
     @Override
     public Executor getAsyncExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -0,0 +1,28 @@
+package com.sunbeam.config;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Lets a single handler override spring.mvc.async.request-timeout for its
+ * StreamingResponseBody, e.g. exports that legitimately stream for longer
+ * than a proof download. The handler stores the timeout in milliseconds
+ * (0 = none) under {@link #TIMEOUT_ATTRIBUTE}; it is applied just before
+ * async processing starts.
+ */
+public class AsyncTimeoutInterceptor implements CallableProcessingInterceptor {
+
+    public static final String TIMEOUT_ATTRIBUTE = AsyncTimeoutInterceptor.class.getName() + ".timeout";
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        Object timeout = request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (timeout instanceof Long timeoutMs && request instanceof AsyncWebRequest asyncRequest) {
+            asyncRequest.setTimeout(timeoutMs);
+        }
+    }
+}
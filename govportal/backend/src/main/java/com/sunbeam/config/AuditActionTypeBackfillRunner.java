@@ -0,0 +1,83 @@
+package com.sunbeam.config;
+
+import com.sunbeam.model.AuditLog;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+
+/**
+ * Fills audit_log.action_type for rows written before actions were coded,
+ * so filters can use the action_type index instead of LIKE on action.
+ * Updates run in chunks; rows that already have a code are left alone, so
+ * the runner is cheap once everything is backfilled.
+ *
+ * Older schemas created action_type as a MySQL ENUM of the original four
+ * codes; it is widened to VARCHAR first so the new codes fit.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.audit.action-type-backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditActionTypeBackfillRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditActionTypeBackfillRunner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.audit.action-type-backfill.batch-size:5000}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String columnType = jdbcTemplate.query(
+                "SELECT DATA_TYPE FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_log' AND COLUMN_NAME = 'action_type'",
+                rs -> rs.next() ? rs.getString(1) : null);
+        if (columnType == null) {
+            return;
+        }
+        if ("enum".equalsIgnoreCase(columnType)) {
+            jdbcTemplate.execute("ALTER TABLE audit_log MODIFY action_type VARCHAR(40)");
+            logger.info("Widened audit_log.action_type from ENUM to VARCHAR(40)");
+        }
+
+        long total = 0;
+        for (AuditLog.ActionType type : AuditLog.ActionType.values()) {
+            if (type.getActions().isEmpty()) {
+                continue;
+            }
+            String placeholders = String.join(", ", Collections.nCopies(type.getActions().size(), "?"));
+            Object[] params = new Object[type.getActions().size() + 2];
+            params[0] = type.name();
+            for (int i = 0; i < type.getActions().size(); i++) {
+                params[i + 1] = type.getActions().get(i);
+            }
+            params[params.length - 1] = batchSize;
+            total += updateInChunks("UPDATE audit_log SET action_type = ? " +
+                    "WHERE action_type IS NULL AND action IN (" + placeholders + ") LIMIT ?", params);
+        }
+        total += updateInChunks("UPDATE audit_log SET action_type = ? WHERE action_type IS NULL LIMIT ?",
+                AuditLog.ActionType.OTHER.name(), batchSize);
+
+        if (total > 0) {
+            logger.info("Backfilled action_type on {} audit log entries", total);
+        }
+    }
+
+    private long updateInChunks(String sql, Object... params) {
+        long total = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update(sql, params);
+            total += updated;
+        } while (updated == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,109 @@
+package com.sunbeam.config;
+
+import com.sunbeam.service.CertificateStorageService;
+import com.sunbeam.service.WorkflowCounterService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Migration of certificates that were stored in the legacy
+ * document_applications.certificate_pdf LONGBLOB column. Each PDF is copied to
+ * S3, then the row gets its certificate_key, the blob is cleared and an
+ * application still at UNDER_CERTIFICATE_GENERATION moves to
+ * CERTIFICATE_READY. Rows are processed in id order, one blob in memory at a
+ * time, so the job can be stopped and restarted safely.
+ *
+ * Runs in the background once the application is ready, so startup does not
+ * wait for the copy; until a row is reached, its certificate is downloaded
+ * straight from the blob. Counters are reconciled once the copy is done, so
+ * moved desks show up without waiting for the scheduled reconciliation.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.certificate-migration.enabled", havingValue = "true", matchIfMissing = true)
+public class CertificateBlobMigrationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CertificateBlobMigrationRunner.class);
+
+    private static final String LOCK_NAME = "govportal_certificate_migration";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CertificateStorageService certificateStorageService;
+    private final WorkflowCounterService workflowCounterService;
+
+    @Value("${app.storage.certificate-migration.batch-size:50}")
+    private int batchSize;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() {
+        if (!legacyColumnExists()) {
+            logger.info("No certificate_pdf column found, nothing to migrate");
+            return;
+        }
+        // GET_LOCK is tied to the connection, so it is held on the one that took it.
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            JdbcTemplate locked = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            Integer acquired = locked.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class, LOCK_NAME);
+            if (acquired == null || acquired != 1) {
+                logger.info("Certificate migration is already running on another node");
+                return null;
+            }
+            try {
+                migrate();
+            } catch (RuntimeException e) {
+                logger.error("Certificate migration failed, it resumes on the next start: {}", e.getMessage(), e);
+            } finally {
+                locked.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, LOCK_NAME);
+            }
+            return null;
+        });
+    }
+
+    private void migrate() {
+        long lastId = 0;
+        int migrated = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM document_applications " +
+                    "WHERE id > ? AND certificate_pdf IS NOT NULL ORDER BY id LIMIT ?",
+                    Long.class, lastId, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            for (Long id : ids) {
+                if (certificateStorageService.migrateLegacyCertificate(id) != null) {
+                    migrated++;
+                }
+                lastId = id;
+            }
+            logger.info("Migrated {} certificate(s) to S3 so far", migrated);
+        }
+        logger.info("Certificate migration finished, {} certificate(s) moved to S3", migrated);
+        if (migrated > 0) {
+            workflowCounterService.reconcile();
+        }
+    }
+
+    private boolean legacyColumnExists() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns " +
+                "WHERE table_schema = DATABASE() AND table_name = 'document_applications' " +
+                "AND column_name = 'certificate_pdf'",
+                Integer.class);
+        return count != null && count > 0;
+    }
+}
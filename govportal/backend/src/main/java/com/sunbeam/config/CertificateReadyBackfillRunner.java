@@ -0,0 +1,71 @@
+package com.sunbeam.config;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves applications certified before the CERTIFICATE_READY desk existed
+ * off UNDER_CERTIFICATE_GENERATION. Back then an approved application kept
+ * that desk for good once its certificate was stored, and it has no
+ * certificate job that could move it. A row is moved when it has a
+ * certificate, either as an S3 key or still in the legacy certificate_pdf
+ * column; certificate_generated_at is filled from the approval time.
+ *
+ * Updates run in chunks and only touch rows still waiting at
+ * UNDER_CERTIFICATE_GENERATION, so the runner is cheap once done and safe
+ * on several nodes. The version is bumped so that a transition based on
+ * the old desk cannot commit over it. Runners finish before the application
+ * is ready, so the startup reconciliation of workflow_counters picks up the
+ * moved rows.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.certificate.ready-backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class CertificateReadyBackfillRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CertificateReadyBackfillRunner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.certificate.ready-backfill.batch-size:1000}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String hasCertificate = legacyColumnExists()
+                ? "(certificate_key IS NOT NULL OR certificate_pdf IS NOT NULL)"
+                : "certificate_key IS NOT NULL";
+        String sql = "UPDATE document_applications SET current_desk = 'CERTIFICATE_READY', " +
+                "certificate_generated_at = COALESCE(certificate_generated_at, resolved_date, last_updated_date, NOW()), " +
+                "version = version + 1 " +
+                "WHERE status = 'APPROVED' AND current_desk = 'UNDER_CERTIFICATE_GENERATION' AND " + hasCertificate +
+                " LIMIT ?";
+
+        long total = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update(sql, batchSize);
+            total += updated;
+        } while (updated == batchSize);
+
+        if (total > 0) {
+            logger.info("Moved {} already certified application(s) to CERTIFICATE_READY", total);
+        }
+    }
+
+    private boolean legacyColumnExists() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns " +
+                "WHERE table_schema = DATABASE() AND table_name = 'document_applications' " +
+                "AND column_name = 'certificate_pdf'",
+                Integer.class);
+        return count != null && count > 0;
+    }
+}
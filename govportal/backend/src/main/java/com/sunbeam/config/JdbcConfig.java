@@ -0,0 +1,35 @@
+package com.sunbeam.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class JdbcConfig {
+
+    /**
+     * Regular template. Declared explicitly because defining the streaming
+     * template below makes Spring Boot skip its own JdbcTemplate.
+     */
+    @Bean
+    @Primary
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Template for large read-only scans. A fetch size of Integer.MIN_VALUE
+     * makes MySQL Connector/J stream rows one at a time instead of buffering
+     * the whole result set. Only use it with RowCallbackHandler-style
+     * queries, and don't issue other statements on the connection mid-scan.
+     */
+    @Bean
+    public JdbcTemplate streamingJdbcTemplate(DataSource dataSource) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(Integer.MIN_VALUE);
+        return template;
+    }
+}
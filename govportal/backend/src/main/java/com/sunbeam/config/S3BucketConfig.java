@@ -1,14 +1,27 @@
 package com.sunbeam.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientAsyncConfiguration;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 public class S3BucketConfig {
@@ -18,20 +31,101 @@ public class S3BucketConfig {
 
    @Value("${aws.s3.secret.access.key}")
    private String secretAccessKey;
-   
+
    @Value("${aws.region}")
    private String awsRegion;
-   
+
+   @Value("${aws.s3.async.max-concurrency:64}")
+   private int asyncMaxConcurrency;
+
+   @Value("${aws.s3.async.executor-pool-size:8}")
+   private int asyncExecutorPoolSize;
+
+   @Value("${aws.s3.async.executor-queue-capacity:256}")
+   private int asyncExecutorQueueCapacity;
+
+   @Value("${aws.s3.async.api-call-timeout-ms:60000}")
+   private long apiCallTimeoutMs;
+
+   @Value("${aws.s3.async.api-call-attempt-timeout-ms:20000}")
+   private long apiCallAttemptTimeoutMs;
+
+   @Value("${app.storage.multipart.threshold:8388608}")
+   private long multipartThreshold;
+
+   @Value("${app.storage.multipart.part-size:5242880}")
+   private long partSize;
+
    @Bean
    public S3Client s3Client() {
-		
+
 	   AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKeyId, secretAccessKey);
-	   
+
 	   return S3Client.builder()
 			   .region(Region.of(awsRegion))
 			   .credentialsProvider(StaticCredentialsProvider.create(credentials))
 			   .build();
    }
-	
-	
+
+   /**
+    * Bounded pool that completes S3 futures and feeds request bodies to the
+    * async client, so callbacks never run on Netty event loop threads. When
+    * it is saturated the task is rejected (AbortPolicy) instead of being run
+    * on the submitting event loop thread, so the request's future fails
+    * right away rather than queueing or blocking.
+    */
+   @Bean(name = "s3AsyncExecutor")
+   @ConditionalOnProperty(name = "aws.s3.client-mode", havingValue = "async")
+   public ThreadPoolTaskExecutor s3AsyncExecutor() {
+	   ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+	   executor.setCorePoolSize(asyncExecutorPoolSize);
+	   executor.setMaxPoolSize(asyncExecutorPoolSize);
+	   executor.setQueueCapacity(asyncExecutorQueueCapacity);
+	   executor.setThreadNamePrefix("S3Async-");
+	   executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+	   executor.initialize();
+	   return executor;
+   }
+
+   @Bean
+   @ConditionalOnProperty(name = "aws.s3.client-mode", havingValue = "async")
+   public S3AsyncClient s3AsyncClient(@Qualifier("s3AsyncExecutor") ThreadPoolTaskExecutor s3AsyncExecutor) {
+
+	   AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKeyId, secretAccessKey);
+
+	   return S3AsyncClient.builder()
+			   .region(Region.of(awsRegion))
+			   .credentialsProvider(StaticCredentialsProvider.create(credentials))
+			   .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+					   .maxConcurrency(asyncMaxConcurrency)
+					   .connectionAcquisitionTimeout(Duration.ofMillis(apiCallAttemptTimeoutMs)))
+			   .asyncConfiguration(ClientAsyncConfiguration.builder()
+					   .advancedOption(SdkAdvancedAsyncClientOption.FUTURE_COMPLETION_EXECUTOR, s3AsyncExecutor)
+					   .build())
+			   .overrideConfiguration(ClientOverrideConfiguration.builder()
+					   .apiCallTimeout(Duration.ofMillis(apiCallTimeoutMs))
+					   .apiCallAttemptTimeout(Duration.ofMillis(apiCallAttemptTimeoutMs))
+					   .build())
+			   .multipartEnabled(true)
+			   .multipartConfiguration(MultipartConfiguration.builder()
+					   .thresholdInBytes(multipartThreshold)
+					   .minimumPartSizeInBytes(partSize)
+					   .build())
+			   .build();
+   }
+
+   /**
+    * Signs short-lived URLs locally; no request is sent to S3 until the client
+    * uses the URL.
+    */
+   @Bean(destroyMethod = "close")
+   public S3Presigner s3Presigner() {
+
+	   AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKeyId, secretAccessKey);
+
+	   return S3Presigner.builder()
+			   .region(Region.of(awsRegion))
+			   .credentialsProvider(StaticCredentialsProvider.create(credentials))
+			   .build();
+   }
 }
@@ -25,6 +25,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.sunbeam.security.JwtAuthFilter;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
@@ -43,6 +44,9 @@ public class SecurityConfig {
     			.cors(cors -> cors.configurationSource(corsConfigurationSource()))
     			.exceptionHandling(ex -> ex.authenticationEntryPoint(customEntryPoint)) 
     			.authorizeHttpRequests(auth -> auth
+    					// Streamed responses finish on an ASYNC dispatch; the
+    					// original request was already authorized.
+    					.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
     					.requestMatchers(
 		                        "/api/auth/**",
 		                        "/v3/api-docs/**",
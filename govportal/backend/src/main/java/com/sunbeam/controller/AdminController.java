@@ -3,17 +3,30 @@ package com.sunbeam.controller;
 import com.sunbeam.dto.request.CreateVerifierRequest;
 import com.sunbeam.dto.request.RegisterRequest;
 import com.sunbeam.dto.response.AdminStatsResponse;
+import com.sunbeam.dto.response.AuditWriterStatsResponse;
 import com.sunbeam.dto.response.AuthResponse;
+import com.sunbeam.dto.response.CertificateRegenerationStatusResponse;
+import com.sunbeam.dto.response.CursorPage;
 import com.sunbeam.dto.response.DocumentApplicationResponse;
 import com.sunbeam.dto.response.ErrorResponse;
 import com.sunbeam.dto.response.UserResponse;
 import com.sunbeam.exception.DatabaseOperationException;
 import com.sunbeam.exception.EmailAlreadyExistsException;
+import com.sunbeam.exception.ResourceNotFoundException;
 import com.sunbeam.exception.UserNotFoundException;
+import com.sunbeam.model.CertificateJob;
+import com.sunbeam.model.DailyReport;
 import com.sunbeam.model.DocumentApplication;
 import com.sunbeam.model.User;
 import com.sunbeam.service.AdminService;
+import com.sunbeam.service.AuditService;
+import com.sunbeam.service.CertificateJobService;
+import com.sunbeam.service.CertificateRegenerationService;
+import com.sunbeam.service.DashboardStreamService;
+import com.sunbeam.service.DailyReportService;
 import com.sunbeam.service.UserService;
+import com.sunbeam.service.VerificationService;
+import com.sunbeam.util.StreamingResponses;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
@@ -21,14 +34,22 @@ import lombok.RequiredArgsConstructor;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.LocalDate;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -39,6 +60,12 @@ public class AdminController {
     private final AdminService adminService;
 	@Autowired
 	private final UserService userService;
+	private final CertificateRegenerationService certificateRegenerationService;
+	private final CertificateJobService certificateJobService;
+	private final DailyReportService dailyReportService;
+	private final AuditService auditService;
+	private final DashboardStreamService dashboardStreamService;
+	private final VerificationService verificationService;
 	
 	
 	@GetMapping("/user/{id}")
@@ -121,6 +148,12 @@ public class AdminController {
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
 		}
     }
+
+    // Live alternative to polling /stats; see DashboardStreamService
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDashboard(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return dashboardStreamService.subscribe(lastEventId);
+    }
     
 //    @GetMapping("/all-applications")
 //    public ResponseEntity<Page<DocumentApplication>> getAllApplications(
@@ -161,6 +194,21 @@ public class AdminController {
 		}
     }
     
+    // Keyset-paginated desk queues; pass the returned nextCursor as cursor for the next page
+    @GetMapping("/applications/desk1/queue")
+    public ResponseEntity<CursorPage<DocumentApplicationResponse>> getDesk1Queue(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(verificationService.getDeskQueue("DESK_1", cursor, size));
+    }
+
+    @GetMapping("/applications/desk2/queue")
+    public ResponseEntity<CursorPage<DocumentApplicationResponse>> getDesk2Queue(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(verificationService.getDeskQueue("DESK_2", cursor, size));
+    }
+
     @GetMapping("/applications/desk2")
     public ResponseEntity<Page<DocumentApplication>> getAllApplicationsOnDesk2(
     		@PageableDefault(size = 20) Pageable pageable 
@@ -177,4 +225,72 @@ public class AdminController {
     
     
     
-}
\ No newline at end of file
+    /**
+     * Re-renders the certificates of all approved applications (optionally of
+     * one document type) in the background. Poll the status endpoint for progress.
+     */
+    @PostMapping("/certificates/regenerate")
+    public ResponseEntity<CertificateRegenerationStatusResponse> regenerateCertificates(
+            @RequestParam(required = false) String documentType
+    ) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(certificateRegenerationService.start(documentType));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(certificateRegenerationService.getStatus());
+        }
+    }
+
+    @GetMapping("/certificates/regenerate/status")
+    public ResponseEntity<CertificateRegenerationStatusResponse> getCertificateRegenerationStatus() {
+        return ResponseEntity.ok(certificateRegenerationService.getStatus());
+    }
+
+    @PostMapping("/certificates/regenerate/cancel")
+    public ResponseEntity<CertificateRegenerationStatusResponse> cancelCertificateRegeneration() {
+        return ResponseEntity.ok(certificateRegenerationService.cancel());
+    }
+
+    /**
+     * Certificate jobs that used up all attempts. Their applications stay at
+     * UNDER_CERTIFICATE_GENERATION until the job is requeued.
+     */
+    @GetMapping("/certificates/jobs/failed")
+    public ResponseEntity<Page<CertificateJob>> getFailedCertificateJobs(@PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(certificateJobService.getFailedJobs(pageable));
+    }
+
+    @PostMapping("/certificates/jobs/{applicationId}/requeue")
+    public ResponseEntity<CertificateJob> requeueCertificateJob(@PathVariable Long applicationId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(certificateJobService.requeue(applicationId));
+    }
+
+    @GetMapping("/audit/writer-stats")
+    public ResponseEntity<AuditWriterStatsResponse> getAuditWriterStats() {
+        return ResponseEntity.ok(auditService.getWriterStats());
+    }
+
+    /**
+     * Serves the stored daily report; reports are built nightly for the previous day.
+     */
+    @GetMapping("/reports/daily/{date}")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getDailyReport(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        try {
+            return dailyReportService.openReport(date).thenApply(StreamingResponses::attachment);
+        } catch (ResourceNotFoundException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        }
+    }
+
+    /**
+     * (Re)builds and stores the report of one day, e.g. for days before the
+     * nightly job existed.
+     */
+    @PostMapping("/reports/daily/{date}")
+    public ResponseEntity<DailyReport> generateDailyReport(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) throws IOException {
+        return ResponseEntity.status(HttpStatus.CREATED).body(dailyReportService.generateAndStore(date));
+    }
+}
@@ -1,13 +1,27 @@
 package com.sunbeam.controller;
 
 import com.sunbeam.dto.response.AuditLogResponse;
+import com.sunbeam.dto.response.CursorPage;
+import com.sunbeam.model.AuditLog;
+import com.sunbeam.config.AsyncTimeoutInterceptor;
+import com.sunbeam.exception.InvalidOperationException;
+import com.sunbeam.service.AuditExportService;
 import com.sunbeam.service.AuditService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/audit-logs")
@@ -15,6 +29,10 @@ import org.springframework.web.bind.annotation.*;
 public class AuditLogController {
 
     private final AuditService auditService;
+    private final AuditExportService auditExportService;
+
+    @Value("${app.audit.export.timeout-ms:3600000}")
+    private long exportTimeoutMs;
 
     @GetMapping
     public ResponseEntity<Page<AuditLogResponse>> getAuditLogs(
@@ -26,6 +44,55 @@ public class AuditLogController {
         return ResponseEntity.ok(auditService.getAuditLogs(pageable));
     }
 
+    /**
+     * Keyset-paginated search for the admin audit screens. Use the returned
+     * nextCursor as cursor to fetch the next page.
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<AuditLogResponse>> searchAuditLogs(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) AuditLog.ActionType actionType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+
+        return ResponseEntity.ok(auditService.searchAuditLogs(userId, actionType, from, to, cursor, size));
+    }
+
+    /**
+     * Streams all matching entries as CSV or NDJSON, oldest first. The body is
+     * written while rows are read, so large ranges neither buffer in memory
+     * nor run into the regular async request timeout.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) AuditLog.ActionType actionType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletRequest request) {
+
+        AuditExportService.Format exportFormat;
+        try {
+            exportFormat = AuditExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidOperationException("Unsupported export format: " + format);
+        }
+        request.setAttribute(AsyncTimeoutInterceptor.TIMEOUT_ATTRIBUTE, exportTimeoutMs);
+
+        String fileName = "audit-logs." + exportFormat.name().toLowerCase();
+        StreamingResponseBody body = out ->
+                auditExportService.export(exportFormat, userId, actionType, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<Page<AuditLogResponse>> getUserAuditLogs(
             @PathVariable Long userId,
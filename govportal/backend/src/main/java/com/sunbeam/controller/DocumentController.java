@@ -2,36 +2,43 @@ package com.sunbeam.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sunbeam.dto.request.DocumentApplicationRequest;
+import com.sunbeam.dto.request.PresignedSubmissionRequest;
+import com.sunbeam.dto.request.PresignedUploadRequest;
 import com.sunbeam.dto.response.DocumentApplicationDetailsResponse;
 import com.sunbeam.dto.response.DocumentApplicationResponse;
+import com.sunbeam.dto.response.PresignedUrlResponse;
 import com.sunbeam.exception.DatabaseOperationException;
 import com.sunbeam.exception.FileStorageException;
 import com.sunbeam.exception.InvalidDocumentTypeException;
+import com.sunbeam.exception.ForbiddenAccessException;
 import com.sunbeam.exception.ResourceNotFoundException;
 import com.sunbeam.model.CustomUserDetails;
 import com.sunbeam.model.DocumentApplication;
 import com.sunbeam.model.User;
 import com.sunbeam.service.impl.DocumentServiceImpl;
+import com.sunbeam.util.StreamingResponses;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-import org.apache.tika.metadata.HttpHeaders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,7 +57,7 @@ public class DocumentController {
 	Logger logger = LoggerFactory.getLogger(DocumentController.class);
 	
 	@PostMapping("/submit")
-	public ResponseEntity<String> submitDocumentApplication(
+	public CompletableFuture<ResponseEntity<String>> submitDocumentApplication(
 			@Valid @RequestPart("applicationData") String applicationRequest,
 			@RequestPart("documents") List<MultipartFile> documents,
 			@AuthenticationPrincipal CustomUserDetails userDetails) {
@@ -58,27 +65,57 @@ public class DocumentController {
 			DocumentApplicationRequest documentApplicationRequest = objectMapper.readValue(applicationRequest, DocumentApplicationRequest.class);
 			// 1. Get the authenticated user
 			User applicant = userDetails.getUser(); 
-			// 2. Call the service to submit the application
-			DocumentApplication application =  documentService.submitApplication(applicant, documentApplicationRequest, documents);
-			return ResponseEntity.status(HttpStatus.CREATED).body("Application submitted successfully with Application ID : " + application.getId() );
+			// 2. Call the service to submit the application; the request thread
+			// is released while the proofs upload (multipart parts stay
+			// readable until the async request completes)
+			return documentService.submitApplication(applicant, documentApplicationRequest, documents)
+					.thenApply(application -> ResponseEntity.status(HttpStatus.CREATED)
+							.body("Application submitted successfully with Application ID : " + application.getId()))
+					.exceptionally(e -> submissionFailure(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e));
+		} catch (Exception e) {
+			return CompletableFuture.completedFuture(submissionFailure(e));
 		}
-		catch (jakarta.validation.ConstraintViolationException e) {
+	}
+
+	private ResponseEntity<String> submissionFailure(Throwable error) {
+		if (error instanceof jakarta.validation.ConstraintViolationException e) {
 			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Validation error: " + e.getMessage());
-		} catch (InvalidDocumentTypeException e) {
+		} else if (error instanceof InvalidDocumentTypeException e) {
 			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-		} catch (IOException e) {
+		} else if (error instanceof IOException e) {
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body("Failed to upload documents: " + e.getMessage());
-		} catch (FileStorageException e) { // Catch your custom exception
+		} else if (error instanceof FileStorageException e) { // Catch your custom exception
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body("File storage error: " + e.getMessage());
-		} catch (DatabaseOperationException e) { // Catch your custom exception
+		} else if (error instanceof DatabaseOperationException e) { // Catch your custom exception
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Database error: " + e.getMessage());
-		} catch (Exception e) {
-		    logger.error("Unexpected error in submitDocumentApplication", e);
-			e.printStackTrace();
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred: " + e.getMessage());
 		}
+		logger.error("Unexpected error in submitDocumentApplication", error);
+		return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred: " + error.getMessage());
+	}
+
+	/**
+	 * Presigned upload, step 1: returns one PUT URL per declared file. The
+	 * client uploads each file straight to S3 with the declared Content-Type.
+	 */
+	@PostMapping("/proofs/upload-urls")
+	public ResponseEntity<List<PresignedUrlResponse>> getProofUploadUrls(
+			@Valid @RequestBody PresignedUploadRequest request,
+			@AuthenticationPrincipal CustomUserDetails userDetails) {
+		return ResponseEntity.ok(documentService.presignProofUploads(userDetails.getUser(), request));
+	}
+
+	/**
+	 * Presigned upload, step 2: submits the application once every file has
+	 * been uploaded, referencing the object keys returned by step 1.
+	 */
+	@PostMapping("/submit/confirm")
+	public ResponseEntity<String> confirmDocumentApplication(
+			@Valid @RequestBody PresignedSubmissionRequest request,
+			@AuthenticationPrincipal CustomUserDetails userDetails) {
+		DocumentApplication application = documentService.confirmPresignedSubmission(userDetails.getUser(), request);
+		return ResponseEntity.status(HttpStatus.CREATED).body("Application submitted successfully with Application ID : " + application.getId());
 	}
 
 //	@GetMapping("/my-applications")
@@ -137,56 +174,75 @@ public class DocumentController {
 	}
 	
 	/**
-     * Endpoint to view or download a specific document proof, accessible by Verifiers.
-     * This endpoint retrieves the document proof as a Resource from the service layer
-     * and serves it via HTTP with appropriate headers for inline viewing.
+     * Endpoint to view a specific document proof inline.
+     * The file is streamed from storage straight to the response, and a single
+     * "Range: bytes=..." request header is honoured with a 206 response.
+     * In presigned delivery mode the client is redirected (303) to a
+     * short-lived S3 URL instead.
      *
      * @param documentProofId The ID of the document proof to retrieve.
-     * @return ResponseEntity containing the file as a Resource, with appropriate headers.
-     * @throws IOException If there's an issue loading the file from the service.
+     * @param range The optional HTTP Range header.
+     * @return Future of the ResponseEntity streaming the file, completed once storage answered.
      * @throws ResourceNotFoundException If the document proof is not found.
      */
     @GetMapping("/proofs/{documentProofId}/view") // NEW ENDPOINT PATH
     
-    public ResponseEntity<Resource> viewDocumentProof(@PathVariable Long documentProofId) throws IOException {
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> viewDocumentProof(
+            @PathVariable Long documentProofId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
         try {
-            Resource resource = documentService.viewDocumentProof(documentProofId);
-            String contentType = documentService.getDocumentProofContentType(documentProofId);
-
-            if (contentType == null || contentType.isBlank()) {
-                contentType = "application/octet-stream"; // Fallback
+            if (documentService.isPresignedDelivery()) {
+                // Let the client fetch the bytes from S3 itself.
+                PresignedUrlResponse url = documentService.presignDocumentProof(documentProofId);
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SEE_OTHER)
+                        .location(URI.create(url.getUrl()))
+                        .<StreamingResponseBody>build());
             }
-
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                    .body(resource);
-        } catch (ResourceNotFoundException e) {
-            // Return 404 Not Found for specific resource not found exceptions
-            return ResponseEntity.notFound().build();
-        } catch (IOException e) {
-            // Handle file loading errors
-            return ResponseEntity.status(500).body(null); // Or a more specific error body
+            // The request thread is released until storage answers.
+            return documentService.openDocumentProof(documentProofId, StreamingResponses.singleByteRange(range))
+                    .thenApply(StreamingResponses::inline)
+                    .exceptionally(StreamingResponses::failure);
+        } catch (ResourceNotFoundException | ForbiddenAccessException e) {
+            return CompletableFuture.completedFuture(StreamingResponses.failure(e));
         }
     }
 	
 	
 
+	@GetMapping("/proofs/{documentProofId}/url")
+	public ResponseEntity<PresignedUrlResponse> getDocumentProofUrl(@PathVariable Long documentProofId) {
+		return ResponseEntity.ok(documentService.presignDocumentProof(documentProofId));
+	}
+
 	@GetMapping("certificate/{id}/download")
-	public ResponseEntity<byte[]> downloadCertificate(@PathVariable Long id) {
+	public CompletableFuture<ResponseEntity<StreamingResponseBody>> downloadCertificate(@PathVariable Long id) {
 		try {
-	        byte[] pdfBytes = documentService.getCertificatePdf(id);
-	        return ResponseEntity.ok()
-	                .header("Content-Type", "application/pdf")
-	                .header("Content-Disposition", "attachment; filename=\"certificate.pdf\"")
-	                .body(pdfBytes);
+			if (documentService.isPresignedDelivery()) {
+				PresignedUrlResponse url = documentService.presignCertificate(id);
+				return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SEE_OTHER)
+						.location(URI.create(url.getUrl()))
+						.<StreamingResponseBody>build());
+			}
+	        return documentService.openCertificate(id)
+	        		.thenApply(StreamingResponses::attachment)
+	        		.exceptionally(e -> {
+	        			logger.error("Unexpected error while downloading certificate for application ID: {}", id, e);
+	        			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+	        		});
 	    } catch (ResourceNotFoundException e) {
-	        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+	        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+	    } catch (ForbiddenAccessException e) {
+	        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
 	    } catch (IllegalStateException e) {
-	        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+	        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
 	    } catch (Exception e) {
 	        logger.error("Unexpected error while downloading certificate for application ID: {}", id, e);
-	        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+	        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
 	    }
 	}
+
+	@GetMapping("certificate/{id}/url")
+	public ResponseEntity<PresignedUrlResponse> getCertificateUrl(@PathVariable Long id) {
+		return ResponseEntity.ok(documentService.presignCertificate(id));
+	}
 }
\ No newline at end of file
@@ -1,23 +1,32 @@
 package com.sunbeam.controller;
+import com.sunbeam.dto.response.CursorPage;
 import com.sunbeam.dto.response.DocumentApplicationDetailsResponse;
 import com.sunbeam.dto.response.DocumentApplicationResponse;
+import com.sunbeam.dto.response.PresignedUrlResponse;
 import com.sunbeam.dto.response.VerificationStatsResponse;
+import com.sunbeam.exception.ForbiddenAccessException;
 import com.sunbeam.exception.ResourceNotFoundException;
+import com.sunbeam.service.DashboardStreamService;
 import com.sunbeam.service.DocumentService;
 import com.sunbeam.service.VerificationService;
+import com.sunbeam.util.StreamingResponses;
 import lombok.RequiredArgsConstructor;
 
-import org.apache.tika.metadata.HttpHeaders;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -31,6 +40,7 @@ public class VerifierController {
 
     private final VerificationService verificationService;
     private final DocumentService documentService;
+    private final DashboardStreamService dashboardStreamService;
     
 
     
@@ -56,45 +66,89 @@ public class VerifierController {
     
     
     /**
-     * Endpoint to view or download a specific document proof, accessible by Verifiers.
-     * This endpoint retrieves the document proof as a Resource from the service layer
-     * and serves it via HTTP with appropriate headers for inline viewing.
+     * Endpoint to view a specific document proof inline.
+     * The file is streamed from storage straight to the response, and a single
+     * "Range: bytes=..." request header is honoured with a 206 response.
+     * In presigned delivery mode the client is redirected (303) to a
+     * short-lived S3 URL instead.
      *
      * @param documentProofId The ID of the document proof to retrieve.
-     * @return ResponseEntity containing the file as a Resource, with appropriate headers.
-     * @throws IOException If there's an issue loading the file from the service.
+     * @param range The optional HTTP Range header.
+     * @return Future of the ResponseEntity streaming the file, completed once storage answered.
      * @throws ResourceNotFoundException If the document proof is not found.
      */
     @GetMapping("/proofs/{documentProofId}/view") // NEW ENDPOINT PATH
     @PreAuthorize("hasRole('VERIFIER') or hasRole('ADMIN') ") // Ensure only VERIFIERs can access this
-    public ResponseEntity<Resource> viewDocumentProof(@PathVariable Long documentProofId) throws IOException {
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> viewDocumentProof(
+            @PathVariable Long documentProofId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
         try {
-            Resource resource = verificationService.viewDocumentProof(documentProofId);
-            String contentType = verificationService.getDocumentProofContentType(documentProofId);
-
-            if (contentType == null || contentType.isBlank()) {
-                contentType = "application/octet-stream"; // Fallback
+            if (documentService.isPresignedDelivery()) {
+                // Let the client fetch the bytes from S3 itself.
+                PresignedUrlResponse url = documentService.presignDocumentProof(documentProofId);
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SEE_OTHER)
+                        .location(URI.create(url.getUrl()))
+                        .<StreamingResponseBody>build());
             }
-
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                    .body(resource);
-        } catch (ResourceNotFoundException e) {
-            // Return 404 Not Found for specific resource not found exceptions
-            return ResponseEntity.notFound().build();
-        } catch (IOException e) {
-            // Handle file loading errors
-            return ResponseEntity.status(500).body(null); // Or a more specific error body
+            // The request thread is released until storage answers.
+            return verificationService.openDocumentProof(documentProofId, StreamingResponses.singleByteRange(range))
+                    .thenApply(StreamingResponses::inline)
+                    .exceptionally(StreamingResponses::failure);
+        } catch (ResourceNotFoundException | ForbiddenAccessException e) {
+            return CompletableFuture.completedFuture(StreamingResponses.failure(e));
         }
     }
 
+    @GetMapping("/proofs/{documentProofId}/url")
+    @PreAuthorize("hasRole('VERIFIER') or hasRole('ADMIN')")
+    public ResponseEntity<PresignedUrlResponse> getDocumentProofUrl(@PathVariable Long documentProofId) {
+        return ResponseEntity.ok(documentService.presignDocumentProof(documentProofId));
+    }
+
     @GetMapping("/pending")
     @PreAuthorize("hasRole('VERIFIER') or hasRole('ADMIN')")
     public ResponseEntity<Page<DocumentApplicationResponse>> getPendingApplications(@PageableDefault(size = 20) Pageable pageable) {
         return ResponseEntity.ok(verificationService.getPendingApplications(pageable));
     }
     
+    /**
+     * Keyset-paginated alternative to /pending for deep queues; pass the
+     * returned nextCursor as cursor to fetch the next page. Admins use the
+     * per-desk queues under /api/admin instead.
+     */
+    @GetMapping("/queue")
+    @PreAuthorize("hasRole('VERIFIER')")
+    public ResponseEntity<CursorPage<DocumentApplicationResponse>> getPendingQueue(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(verificationService.getPendingQueue(cursor, size));
+    }
+
+    /**
+     * Claims up to count more applications from the caller's desk and returns
+     * all applications the caller currently holds. Approve, reject and
+     * request changes need an active claim.
+     */
+    @PostMapping("/claims")
+    @PreAuthorize("hasRole('VERIFIER')")
+    public ResponseEntity<List<DocumentApplicationResponse>> claimNextApplications(
+            @RequestParam(defaultValue = "1") int count) {
+        return ResponseEntity.ok(verificationService.claimNextApplications(count));
+    }
+
+    @PostMapping("/claims/{applicationId}/renew")
+    @PreAuthorize("hasRole('VERIFIER')")
+    public ResponseEntity<DocumentApplicationResponse> renewClaim(@PathVariable Long applicationId) {
+        return ResponseEntity.ok(verificationService.renewClaim(applicationId));
+    }
+
+    @DeleteMapping("/claims/{applicationId}")
+    @PreAuthorize("hasRole('VERIFIER')")
+    public ResponseEntity<Void> releaseClaim(@PathVariable Long applicationId) {
+        verificationService.releaseClaim(applicationId);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/approve/{applicationId}")
     @PreAuthorize("hasRole('VERIFIER') or hasRole('ADMIN')")
     public ResponseEntity<DocumentApplicationResponse> approveApplication(
@@ -132,4 +186,11 @@ public class VerifierController {
     public ResponseEntity<VerificationStatsResponse> getVerificationStats() {
         return ResponseEntity.ok(verificationService.getVerificationStats());
     }
+
+    // Live alternative to polling /stats and /pending; see DashboardStreamService
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('VERIFIER') or hasRole('ADMIN')")
+    public SseEmitter streamDashboard(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return dashboardStreamService.subscribe(lastEventId);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.sunbeam.dto;
+
+import com.sunbeam.model.DocumentApplication.ApplicationStatus;
+import lombok.Data;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Application totals by status and by desk, built from one grouped query
+ * instead of one COUNT per figure.
+ */
+@Data
+public class ApplicationCounts {
+    private long total;
+    private Map<ApplicationStatus, Long> byStatus = new EnumMap<>(ApplicationStatus.class);
+    private Map<String, Long> byDesk = new HashMap<>();
+
+    /**
+     * @param rows (status, currentDesk, count) tuples
+     */
+    public static ApplicationCounts fromRows(List<Object[]> rows) {
+        ApplicationCounts counts = new ApplicationCounts();
+        for (Object[] row : rows) {
+            long count = ((Number) row[2]).longValue();
+            counts.total += count;
+            counts.byStatus.merge((ApplicationStatus) row[0], count, Long::sum);
+            if (row[1] != null) {
+                counts.byDesk.merge((String) row[1], count, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    public long status(ApplicationStatus status) {
+        return byStatus.getOrDefault(status, 0L);
+    }
+
+    public long desk(String desk) {
+        return byDesk.getOrDefault(desk, 0L);
+    }
+}
@@ -0,0 +1,53 @@
+package com.sunbeam.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Aggregated figures of one day, as rendered into the daily operations report.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyReportData {
+    private LocalDate date;
+
+    // keyed by document type
+    private Map<String, TypeCounts> countsByType;
+
+    // current number of applications per desk when the report was built
+    private Map<String, Long> deskBacklog;
+
+    // verifier email -> actions taken that day
+    private Map<String, VerifierActivity> verifierThroughput;
+
+    private long resolvedCount;
+    private Duration medianTimeToResolution; // null when nothing was resolved
+
+    @Data
+    public static class TypeCounts {
+        private long submitted;
+        private long approved;
+        private long rejected;
+        private long changesRequested;
+    }
+
+    @Data
+    public static class VerifierActivity {
+        private long forwarded;
+        private long approved;
+        private long rejected;
+        private long changesRequested;
+
+        public long getTotal() {
+            return forwarded + approved + rejected + changesRequested;
+        }
+    }
+}
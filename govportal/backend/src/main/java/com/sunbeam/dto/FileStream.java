@@ -0,0 +1,33 @@
+package com.sunbeam.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An open, not yet consumed download from object storage. Whoever writes the
+ * content out is responsible for closing it.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class FileStream implements Closeable {
+    private final String fileName;
+    private final String contentType;
+    private final Long contentLength;
+    private final String contentRange; // set only for partial (Range) responses
+    private final InputStream content;
+
+    public boolean isPartial() {
+        return contentRange != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        content.close();
+    }
+}
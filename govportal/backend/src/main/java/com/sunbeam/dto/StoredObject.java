@@ -0,0 +1,20 @@
+package com.sunbeam.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Metadata of a file that has been written to object storage.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredObject {
+    private String originalFileName;
+    private String objectKey;
+    private String contentType;
+    private long size;
+}
@@ -0,0 +1,40 @@
+package com.sunbeam.dto;
+
+import com.sunbeam.model.User.Role;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * User totals for the admin dashboard, built from one grouped query.
+ */
+@Data
+public class UserCounts {
+    private long citizens;
+    private long activeVerifiers;
+    private long blocked;
+
+    /**
+     * @param rows (role, enabled, blocked, count) tuples
+     */
+    public static UserCounts fromRows(List<Object[]> rows) {
+        UserCounts counts = new UserCounts();
+        for (Object[] row : rows) {
+            Role role = (Role) row[0];
+            boolean enabled = (Boolean) row[1];
+            boolean blocked = (Boolean) row[2];
+            long count = ((Number) row[3]).longValue();
+
+            if (role == Role.CITIZEN) {
+                counts.citizens += count;
+            }
+            if (role == Role.VERIFIER && enabled) {
+                counts.activeVerifiers += count;
+            }
+            if (blocked) {
+                counts.blocked += count;
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,17 @@
+package com.sunbeam.dto;
+
+import com.sunbeam.model.DocumentApplication.ApplicationStatus;
+import com.sunbeam.model.DocumentApplication.DocumentType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published for every submission and workflow transition; listeners that
+ * only care about committed changes use a TransactionalEventListener.
+ * fromDesk and fromStatus are null for a new submission.
+ */
+public record WorkflowTransitionEvent(Long applicationId, DocumentType documentType,
+                                      String fromDesk, ApplicationStatus fromStatus,
+                                      String toDesk, ApplicationStatus toStatus,
+                                      LocalDateTime occurredAt) {
+}
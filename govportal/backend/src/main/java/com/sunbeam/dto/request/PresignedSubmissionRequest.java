@@ -0,0 +1,33 @@
+package com.sunbeam.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Confirms an application whose proofs were uploaded directly to object
+ * storage through presigned PUT URLs.
+ */
+@Data
+public class PresignedSubmissionRequest {
+
+    @NotNull(message = "Application data is required")
+    @Valid
+    private DocumentApplicationRequest applicationData;
+
+    @NotEmpty(message = "At least one uploaded proof is required")
+    private List<@Valid UploadedProof> proofs;
+
+    @Data
+    public static class UploadedProof {
+        @NotBlank(message = "Object key is required")
+        private String objectKey;
+
+        @NotBlank(message = "File name is required")
+        private String fileName;
+    }
+}
@@ -0,0 +1,28 @@
+package com.sunbeam.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PresignedUploadRequest {
+
+    @NotEmpty(message = "At least one file is required")
+    private List<@Valid ProofFile> files;
+
+    @Data
+    public static class ProofFile {
+        @NotBlank(message = "File name is required")
+        private String fileName;
+
+        @NotBlank(message = "Content type is required")
+        private String contentType;
+
+        @Positive(message = "File size must be positive")
+        private long size;
+    }
+}
@@ -0,0 +1,20 @@
+package com.sunbeam.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditWriterStatsResponse {
+    private String durability; // ASYNC or COMMIT
+    private int queueDepth;
+    private int queueCapacity;
+    private long enqueued;
+    private long written;
+    private long dropped; // rejected because the queue was full
+    private long failed; // lost to insert errors
+}
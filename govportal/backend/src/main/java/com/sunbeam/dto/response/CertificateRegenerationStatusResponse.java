@@ -0,0 +1,25 @@
+package com.sunbeam.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CertificateRegenerationStatusResponse {
+    private String state; // IDLE, RUNNING, COMPLETED, CANCELLED, FAILED
+    private String documentType; // null when all types are regenerated
+    private long total;
+    private long processed;
+    private long failed;
+    private Long lastApplicationId;
+    private double certificatesPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
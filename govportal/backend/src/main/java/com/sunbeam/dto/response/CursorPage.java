@@ -0,0 +1,37 @@
+package com.sunbeam.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. Pass nextCursor back as the
+ * cursor parameter to get the following page; it is null on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+
+    /**
+     * Builds a page from rows fetched with limit size + 1; the extra row only
+     * tells whether another page exists and is not returned.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, T> mapper, Function<E, String> cursorOf) {
+        boolean hasMore = rows.size() > size;
+        List<E> page = hasMore ? rows.subList(0, size) : rows;
+        return CursorPage.<T>builder()
+                .content(page.stream().map(mapper).toList())
+                .size(page.size())
+                .nextCursor(hasMore ? cursorOf.apply(page.get(page.size() - 1)) : null)
+                .build();
+    }
+}
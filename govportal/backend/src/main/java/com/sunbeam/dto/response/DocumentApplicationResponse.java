@@ -25,4 +25,6 @@ public class DocumentApplicationResponse {
     private LocalDateTime resolvedDate;
     private String rejectionReason;
     private String currentDesk;
+    private Long claimedByUserId;
+    private LocalDateTime claimExpiresAt;
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.sunbeam.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignedUrlResponse {
+    private String url;
+    private String method;
+    private String objectKey; // only set for uploads; echo it back when confirming
+    private LocalDateTime expiresAt;
+}
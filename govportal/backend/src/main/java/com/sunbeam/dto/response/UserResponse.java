@@ -6,11 +6,15 @@ import java.time.LocalDateTime;
 import com.sunbeam.model.User.Designation;
 import com.sunbeam.model.User.Role;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 @Setter
 @Getter
 public class UserResponse {
@@ -4,6 +4,7 @@ import com.sunbeam.dto.response.ErrorResponse;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -47,7 +48,9 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler({
         EmailAlreadyExistsException.class,
-        
+        InvalidDocumentTypeException.class,
+        InvalidFileTypeException.class,
+        InvalidOperationException.class,
         InvalidTokenException.class
     })
     
@@ -109,6 +112,14 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler(ForbiddenAccessException.class)
+    public ResponseEntity<ErrorResponse> handleForbiddenAccess(ForbiddenAccessException ex) {
+        return new ResponseEntity<>(
+            new ErrorResponse("ACCESS_DENIED", ex.getMessage()),
+            HttpStatus.FORBIDDEN
+        );
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ErrorResponse> handleAccessDenied() {
         return new ResponseEntity<>(
@@ -117,6 +128,30 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(WorkflowException.class)
+    public ResponseEntity<ErrorResponse> handleWorkflowConflict(WorkflowException ex) {
+        return new ResponseEntity<>(
+            new ErrorResponse("WORKFLOW_CONFLICT", ex.getMessage()),
+            HttpStatus.CONFLICT
+        );
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure() {
+        return new ResponseEntity<>(
+            new ErrorResponse("CONCURRENT_MODIFICATION", "The record was changed by someone else. Reload and try again."),
+            HttpStatus.CONFLICT
+        );
+    }
+
+    @ExceptionHandler(StreamCapacityException.class)
+    public ResponseEntity<ErrorResponse> handleStreamCapacity(StreamCapacityException ex) {
+        return new ResponseEntity<>(
+            new ErrorResponse("SERVICE_UNAVAILABLE", ex.getMessage()),
+            HttpStatus.SERVICE_UNAVAILABLE
+        );
+    }
+
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ErrorResponse> handleDataIntegrityViolation() {
         return new ResponseEntity<>(
@@ -0,0 +1,7 @@
+package com.sunbeam.exception;
+
+public class RangeNotSatisfiableException extends BaseException {
+    public RangeNotSatisfiableException(String message) {
+        super(message);
+    }
+}
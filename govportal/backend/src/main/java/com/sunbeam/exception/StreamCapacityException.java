@@ -0,0 +1,7 @@
+package com.sunbeam.exception;
+
+public class StreamCapacityException extends BaseException {
+    public StreamCapacityException(String message) {
+        super(message);
+    }
+}
@@ -9,29 +9,83 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * When app.audit.partitioning.enabled is set, audit_log is range-partitioned
+ * by month on timestamp (see AuditRetentionServiceImpl). MySQL requires the
+ * partitioning column in every unique key and does not allow foreign keys on
+ * partitioned tables, so the primary key in the database is (id, timestamp)
+ * and user_id is not a constraint; id alone is still unique.
+ */
 @Entity
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@Table(name = "audit_log", indexes = {
+        @Index(name = "idx_audit_log_timestamp", columnList = "timestamp"),
+        @Index(name = "idx_audit_log_user_timestamp", columnList = "user_id, timestamp"),
+        @Index(name = "idx_audit_log_action_type_timestamp", columnList = "action_type, timestamp")
+})
 public class AuditLog {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
     @ManyToOne
+    @JoinColumn(name = "user_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User user;
     
     private String action;
     private String details;
     
+    @Column(nullable = false)
     private LocalDateTime timestamp;
     
+    // VARCHAR rather than a MySQL ENUM so new codes do not need a table rebuild
     @Enumerated(EnumType.STRING)
+    @Column(name = "action_type", columnDefinition = "VARCHAR(40)")
     private ActionType actionType;
 
+    /**
+     * Indexed code for the free-text action. Each constant lists the action
+     * strings it stands for; anything unknown is OTHER.
+     */
     public enum ActionType {
-        LOGIN, DOCUMENT_SUBMIT, DOCUMENT_APPROVE, DOCUMENT_REJECT
+        LOGIN("LOGIN"),
+        DOCUMENT_SUBMIT("DOCUMENT_SUBMIT", "DOCUMENT_SUBMITTED"),
+        DOCUMENT_APPROVE("DOCUMENT_APPROVE", "DOCUMENT_APPROVED"),
+        DOCUMENT_REJECT("DOCUMENT_REJECT", "DOCUMENT_REJECTED"),
+        MOVED_TO_DESK_2("MOVED_TO_DESK_2"),
+        CHANGES_REQUESTED("CHANGES_REQUESTED", "DOCUMENT_CHANGES_REQUESTED"),
+        PDF_GENERATION_FAILED("PDF_GENERATION_FAILED"),
+        OTHER();
+
+        private static final Map<String, ActionType> BY_ACTION = new HashMap<>();
+
+        static {
+            for (ActionType type : values()) {
+                for (String action : type.actions) {
+                    BY_ACTION.put(action, type);
+                }
+            }
+        }
+
+        private final List<String> actions;
+
+        ActionType(String... actions) {
+            this.actions = List.of(actions);
+        }
+
+        public List<String> getActions() {
+            return actions;
+        }
+
+        public static ActionType fromAction(String action) {
+            return action == null ? OTHER : BY_ACTION.getOrDefault(action.toUpperCase(), OTHER);
+        }
     }
 }
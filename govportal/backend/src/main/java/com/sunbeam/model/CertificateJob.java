@@ -0,0 +1,57 @@
+package com.sunbeam.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A queued certificate rendering for an approved application. Workers claim
+ * due jobs with SELECT ... FOR UPDATE SKIP LOCKED, so several app nodes can
+ * poll the same table without handing out a job twice.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "certificate_jobs",
+		indexes = @Index(name = "idx_certificate_jobs_status_due", columnList = "status, next_attempt_at"))
+public class CertificateJob {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "application_id", nullable = false, unique = true)
+	private Long applicationId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 20)
+	private Status status;
+
+	@Column(nullable = false)
+	private int attempts;
+
+	@Column(name = "next_attempt_at", nullable = false)
+	private LocalDateTime nextAttemptAt;
+
+	// a RUNNING job whose lease has expired belongs to a dead worker and is claimed again
+	@Column(name = "lease_expires_at")
+	private LocalDateTime leaseExpiresAt;
+
+	@Column(length = 1000)
+	private String lastError;
+
+	@Column(nullable = false, updatable = false)
+	private LocalDateTime createdAt;
+
+	private LocalDateTime completedAt;
+
+	public enum Status {
+		PENDING, RUNNING, DONE, FAILED
+	}
+}
@@ -0,0 +1,38 @@
+package com.sunbeam.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A generated daily operations report. The PDF lives in object storage; this
+ * row records where and when it was produced.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "daily_reports")
+public class DailyReport {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "report_date", nullable = false, unique = true)
+	private LocalDate reportDate;
+
+	@Column(nullable = false)
+	private String objectKey;
+
+	private long sizeBytes;
+
+	@Column(nullable = false)
+	private LocalDateTime generatedAt;
+}
@@ -20,7 +20,13 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "document_applications")
+@Table(name = "document_applications",
+		indexes = {
+				// covers the GROUP BY status, current_desk, document_type in WorkflowCounterServiceImpl.readDrift, so reconciliation never reads the rows themselves
+				@Index(name = "idx_document_applications_status_desk_type", columnList = "status, current_desk, document_type"),
+				// desk work queues, read in (submission_date, id) order
+				@Index(name = "idx_document_applications_desk_queue", columnList = "current_desk, submission_date, id")
+		})
 @EntityListeners(AuditingEntityListener.class)
 
 public class DocumentApplication {
@@ -29,6 +35,11 @@ public class DocumentApplication {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 
+	// Optimistic lock: a workflow transition based on a stale read fails at commit instead of overwriting
+	@Version
+	@Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+	private Long version;
+
 	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "user_id", nullable = false)
 	private User applicant;
@@ -54,7 +65,7 @@ public class DocumentApplication {
 
 
 	private String rejectionReason;
-	private String currentDesk; // "DESK_1", "DESK_2" etc
+	private String currentDesk; // "DESK_1", "DESK_2", "UNDER_CERTIFICATE_GENERATION", "CERTIFICATE_READY" etc
 
 	@ManyToOne
 	@JoinColumn(name = "approved_by_user_id")
@@ -69,9 +80,18 @@ public class DocumentApplication {
 
 	private LocalDateTime resolvedDate;
 
-	@Lob
-	@Column(name = "certificate_pdf", columnDefinition = "LONGBLOB")
-	private byte[] certificatePdf;
+	// S3 object key of the generated certificate; the PDF itself is not kept in this table
+	@Column(name = "certificate_key")
+	private String certificateKey;
+
+	private LocalDateTime certificateGeneratedAt;
+
+	// Review lease: the verifier who claimed this application from the desk queue, until claimExpiresAt
+	@Column(name = "claimed_by_user_id")
+	private Long claimedByUserId;
+
+	@Column(name = "claim_expires_at")
+	private LocalDateTime claimExpiresAt;
 	
 	public enum DocumentType {
 		INCOME, CASTE, DOMICILE, BIRTH;
@@ -0,0 +1,74 @@
+package com.sunbeam.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An email waiting to be sent. Rows are written in the same transaction as
+ * the business change that triggers them and picked up by the outbox
+ * dispatcher after commit, so a rollback never sends mail and a mail server
+ * outage never rolls back the change.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "email_outbox",
+		indexes = @Index(name = "idx_email_outbox_status_due", columnList = "status, next_attempt_at"))
+public class EmailOutbox {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(nullable = false)
+	private String recipient;
+
+	@Column(nullable = false)
+	private String subject;
+
+	// Thymeleaf template rendered at send time; null when body already holds the HTML
+	@Column(length = 100)
+	private String template;
+
+	// template variables as a JSON object
+	@Lob
+	@Column(columnDefinition = "TEXT")
+	private String variables;
+
+	@Lob
+	@Column(columnDefinition = "TEXT")
+	private String body;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 20)
+	private Status status;
+
+	@Column(nullable = false)
+	private int attempts;
+
+	@Column(name = "next_attempt_at", nullable = false)
+	private LocalDateTime nextAttemptAt;
+
+	// a SENDING row whose lease has expired belongs to a dead dispatcher and is claimed again
+	@Column(name = "lease_expires_at")
+	private LocalDateTime leaseExpiresAt;
+
+	@Column(length = 1000)
+	private String lastError;
+
+	@Column(nullable = false, updatable = false)
+	private LocalDateTime createdAt;
+
+	private LocalDateTime sentAt;
+
+	public enum Status {
+		PENDING, SENDING, SENT, FAILED
+	}
+}
@@ -0,0 +1,40 @@
+package com.sunbeam.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change to a user's token epoch: tokens of that user with a lower
+ * epoch must no longer be accepted. Written in the same transaction as the
+ * change (see TokenRevocationListener) and read incrementally by every
+ * node's TokenRevocationRegistry. Rows older than the token lifetime no
+ * longer matter and are purged.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "token_revocations",
+		indexes = @Index(name = "idx_token_revocations_revoked_at", columnList = "revoked_at"))
+public class TokenRevocation {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "user_id", nullable = false)
+	private Long userId;
+
+	// Long.MAX_VALUE for a deleted user, so none of its tokens pass
+	@Column(name = "token_epoch", nullable = false)
+	private long tokenEpoch;
+
+	@Column(name = "revoked_at", nullable = false, columnDefinition = "DATETIME(3) NOT NULL")
+	private LocalDateTime revokedAt;
+}
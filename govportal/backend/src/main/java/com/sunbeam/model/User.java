@@ -1,14 +1,18 @@
 package com.sunbeam.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.sunbeam.security.TokenRevocationListener;
 
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import lombok.ToString;
 
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -23,7 +27,7 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, TokenRevocationListener.class})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User {
 	
@@ -56,6 +60,18 @@ public class User {
     @Enumerated(EnumType.STRING)
     private Designation designation = null;
 
+    // Bumped whenever previously issued tokens must stop working: password change/reset, and any
+    // change of blocked, role or designation (see the setters below), since tokens carry role and designation.
+    @Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long tokenEpoch;
+
+    // Epoch as loaded, so TokenRevocationListener can tell whether an update bumped it
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long loadedTokenEpoch;
+
     // Citizen-specific fields
     private String address;
     
@@ -87,6 +103,28 @@ public class User {
         SENIOR_VERIFIER, 
     }
 
+    // Hibernate uses field access, so these only run for real changes, never while loading a row.
+    public void setRole(Role role) {
+        if (id != null && this.role != role) {
+            tokenEpoch++;
+        }
+        this.role = role;
+    }
+
+    public void setDesignation(Designation designation) {
+        if (id != null && this.designation != designation) {
+            tokenEpoch++;
+        }
+        this.designation = designation;
+    }
+
+    public void setBlocked(boolean blocked) {
+        if (id != null && this.blocked != blocked) {
+            tokenEpoch++;
+        }
+        this.blocked = blocked;
+    }
+
     // Full name getter
     public String getFullName() {
         return firstName + " " + lastName;
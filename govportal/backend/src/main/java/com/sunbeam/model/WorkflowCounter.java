@@ -0,0 +1,49 @@
+package com.sunbeam.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of applications currently at each (desk, status, document type).
+ * Maintained by the workflow itself in the same transaction as every
+ * submission and transition, and periodically reconciled against
+ * document_applications, so dashboards read a handful of rows instead of
+ * counting the whole table.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "workflow_counters",
+		uniqueConstraints = @UniqueConstraint(name = "uk_workflow_counters_key",
+				columnNames = {"desk", "status", "document_type"}))
+public class WorkflowCounter {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	// empty string for applications without a desk, so the unique key still applies
+	@Column(nullable = false, length = 40)
+	private String desk;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, columnDefinition = "VARCHAR(30)")
+	private DocumentApplication.ApplicationStatus status;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "document_type", nullable = false, columnDefinition = "VARCHAR(30)")
+	private DocumentApplication.DocumentType documentType;
+
+	@Column(name = "application_count", nullable = false)
+	private long applicationCount;
+
+	@Column(name = "updated_at", nullable = false)
+	private LocalDateTime updatedAt;
+}
@@ -5,8 +5,10 @@ import com.sunbeam.model.AuditLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,8 +23,8 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     // Filter by user ID with pagination
     Page<AuditLog> findByUserIdOrderByTimestampDesc(Long userId, Pageable pageable);
 
-    // Filter by action type
-    Page<AuditLog> findByActionContainingIgnoreCaseOrderByTimestampDesc(String action, Pageable pageable);
+    // Filter by action type (served by idx_audit_log_action_type_timestamp)
+    Page<AuditLog> findByActionTypeOrderByTimestampDesc(AuditLog.ActionType actionType, Pageable pageable);
 
     // Date range filtering
     @Query("SELECT al FROM AuditLog al " +
@@ -37,27 +39,56 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     // Combined filters
     @Query("SELECT al FROM AuditLog al " +
            "WHERE (:userId IS NULL OR al.user.id = :userId) " +
-           "AND (:action IS NULL OR LOWER(al.action) LIKE LOWER(CONCAT('%', :action, '%'))) " +
+           "AND (:actionType IS NULL OR al.actionType = :actionType) " +
            "AND (:startDate IS NULL OR al.timestamp >= :startDate) " +
            "AND (:endDate IS NULL OR al.timestamp <= :endDate) " +
            "ORDER BY al.timestamp DESC")
     Page<AuditLog> findByFilters(
             @Param("userId") Long userId,
-            @Param("action") String action,
+            @Param("actionType") AuditLog.ActionType actionType,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate,
             Pageable pageable
     );
 
+    /**
+     * Keyset page in (timestamp, id) descending order, starting after the
+     * cursor row (pass null cursor values for the first page). Unused filters
+     * are passed as null; MySQL drops the "IS NULL OR" branches as constants,
+     * so each combination is a range scan on one of the timestamp indexes.
+     * Limit the result with a Pageable of size + 1 to detect a next page.
+     */
+    @Query("SELECT al FROM AuditLog al LEFT JOIN FETCH al.user " +
+           "WHERE (:userId IS NULL OR al.user.id = :userId) " +
+           "AND (:actionType IS NULL OR al.actionType = :actionType) " +
+           "AND (:from IS NULL OR al.timestamp >= :from) " +
+           "AND (:to IS NULL OR al.timestamp < :to) " +
+           "AND (:cursorTimestamp IS NULL OR al.timestamp < :cursorTimestamp " +
+           "     OR (al.timestamp = :cursorTimestamp AND al.id < :cursorId)) " +
+           "ORDER BY al.timestamp DESC, al.id DESC")
+    List<AuditLog> findKeysetPage(
+            @Param("userId") Long userId,
+            @Param("actionType") AuditLog.ActionType actionType,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("cursorTimestamp") LocalDateTime cursorTimestamp,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
     // For dashboard statistics
     @Query("SELECT al.action, COUNT(al) FROM AuditLog al " +
            "WHERE al.timestamp >= :since " +
            "GROUP BY al.action")
     List<Object[]> countActionsSince(@Param("since") LocalDateTime since);
 
-    // Bulk delete old logs (for cleanup jobs)
-    @Query("DELETE FROM AuditLog al WHERE al.timestamp < :cutoffDate")
-    void deleteOlderThan(@Param("cutoffDate") LocalDateTime cutoffDate);
+    // Bulk delete old logs (for cleanup jobs). Deletes at most `limit` rows per call
+    // so each transaction stays short; call it until it returns less than `limit`.
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM audit_log WHERE `timestamp` < :cutoffDate ORDER BY `timestamp` LIMIT :limit",
+           nativeQuery = true)
+    int deleteOlderThan(@Param("cutoffDate") LocalDateTime cutoffDate, @Param("limit") int limit);
 
 	Page findAll(Pageable pageable);
 }
\ No newline at end of file
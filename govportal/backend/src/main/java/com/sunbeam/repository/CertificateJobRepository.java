@@ -0,0 +1,38 @@
+package com.sunbeam.repository;
+
+import com.sunbeam.model.CertificateJob;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface CertificateJobRepository extends JpaRepository<CertificateJob, Long> {
+
+    /**
+     * Locks up to {@code limit} due jobs. Rows already locked by another
+     * worker are skipped rather than waited for. Must run in a transaction.
+     */
+    @Query(value = "SELECT * FROM certificate_jobs " +
+            "WHERE (status = 'PENDING' AND next_attempt_at <= :now) " +
+            "OR (status = 'RUNNING' AND lease_expires_at < :now) " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<CertificateJob> lockDueJobs(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Locks one job so a worker can check it still owns the job before
+     * finishing it. Must run in a transaction.
+     */
+    @Query(value = "SELECT * FROM certificate_jobs WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<CertificateJob> lockById(@Param("id") Long id);
+
+    Optional<CertificateJob> findByApplicationId(Long applicationId);
+
+    Page<CertificateJob> findByStatusOrderByIdDesc(CertificateJob.Status status, Pageable pageable);
+
+    long countByStatus(CertificateJob.Status status);
+}
@@ -0,0 +1,12 @@
+package com.sunbeam.repository;
+
+import com.sunbeam.model.DailyReport;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface DailyReportRepository extends JpaRepository<DailyReport, Long> {
+
+    Optional<DailyReport> findByReportDate(LocalDate reportDate);
+}
@@ -8,6 +8,7 @@ import com.sunbeam.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -21,14 +22,84 @@ public interface DocumentApplicationRepository extends JpaRepository<DocumentApp
     Page<DocumentApplication> findByApplicantAndStatus(User applicant, ApplicationStatus status,Pageable pageable);
     Page<DocumentApplication> findByStatus(ApplicationStatus status,Pageable pageable);
     Page<DocumentApplication> findByCurrentDesk(String deskLevel, Pageable pageable);
+
+    /**
+     * Keyset page of a desk's work queue, oldest submission first, starting
+     * after the (submissionDate, id) cursor; pass nulls for the first page.
+     * Served by idx_document_applications_desk_queue without a COUNT query.
+     */
+    @Query("SELECT da FROM DocumentApplication da WHERE da.currentDesk = :desk " +
+           "AND (:cursorDate IS NULL OR da.submissionDate > :cursorDate " +
+           "     OR (da.submissionDate = :cursorDate AND da.id > :cursorId)) " +
+           "ORDER BY da.submissionDate, da.id")
+    List<DocumentApplication> findDeskQueuePage(@Param("desk") String desk,
+                                                @Param("cursorDate") LocalDateTime cursorDate,
+                                                @Param("cursorId") Long cursorId,
+                                                Pageable pageable);
     long countByStatus(ApplicationStatus status);
     long count();
     long countByCurrentDesk(String deskLevel);
+
+    /**
+     * Locks up to {@code limit} unclaimed (or lapsed) applications at the head
+     * of a desk queue. Rows another verifier is claiming right now are skipped
+     * rather than waited for. Must run in a transaction.
+     */
+    @Query(value = "SELECT * FROM document_applications " +
+            "WHERE current_desk = :desk AND (claim_expires_at IS NULL OR claim_expires_at < :now) " +
+            "ORDER BY submission_date, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<DocumentApplication> lockClaimable(@Param("desk") String desk, @Param("now") LocalDateTime now,
+                                            @Param("limit") int limit);
+
+    @Query("SELECT da FROM DocumentApplication da WHERE da.claimedByUserId = :userId " +
+           "AND da.claimExpiresAt >= :now ORDER BY da.submissionDate, da.id")
+    List<DocumentApplication> findActiveClaims(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE DocumentApplication da SET da.claimExpiresAt = :expiresAt WHERE da.id = :id " +
+           "AND da.claimedByUserId = :userId AND da.claimExpiresAt >= :now")
+    int renewClaim(@Param("id") Long id, @Param("userId") Long userId,
+                   @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Bumps the version so a transition started under the released claim cannot commit
+    @Modifying
+    @Query("UPDATE DocumentApplication da SET da.claimedByUserId = NULL, da.claimExpiresAt = NULL, " +
+           "da.version = da.version + 1 WHERE da.id = :id AND da.claimedByUserId = :userId")
+    int releaseClaim(@Param("id") Long id, @Param("userId") Long userId);
     Optional<DocumentApplication>	 findById(long id);
     
     @Query("SELECT da FROM DocumentApplication da LEFT JOIN FETCH da.documentProofs WHERE da.id = :applicationId")
     Optional<DocumentApplication> findByIdWithProofs(@Param("applicationId") Long applicationId);
     
+    @Query("SELECT da FROM DocumentApplication da JOIN FETCH da.applicant WHERE da.id = :applicationId")
+    Optional<DocumentApplication> findByIdWithApplicant(@Param("applicationId") Long applicationId);
+
+    /**
+     * Locks one application so a background job can check where it is before
+     * moving it. Must run in a transaction.
+     */
+    @Query(value = "SELECT * FROM document_applications WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<DocumentApplication> lockById(@Param("id") Long id);
+
+    /**
+     * Keyset page of applications that have a certificate in S3, after
+     * {@code lastId}, with the applicant already loaded, for batch jobs that
+     * walk the whole table. Includes certificates issued before the
+     * CERTIFICATE_READY desk existed, whatever desk they are at.
+     */
+    @Query("SELECT da FROM DocumentApplication da JOIN FETCH da.applicant " +
+            "WHERE da.status = :status AND da.certificateKey IS NOT NULL AND da.id > :lastId " +
+            "AND (:documentType IS NULL OR da.documentType = :documentType) ORDER BY da.id")
+    List<DocumentApplication> findCertifiedChunkAfter(@Param("status") ApplicationStatus status,
+                                                      @Param("documentType") DocumentType documentType,
+                                                      @Param("lastId") Long lastId,
+                                                      Pageable pageable);
+
+    @Query("SELECT COUNT(da) FROM DocumentApplication da WHERE da.status = :status AND da.certificateKey IS NOT NULL " +
+            "AND (:documentType IS NULL OR da.documentType = :documentType)")
+    long countCertified(@Param("status") ApplicationStatus status,
+                        @Param("documentType") DocumentType documentType);
+
     Page<DocumentApplication> findByApprovedBy(User verifier, Pageable pageable);
 
     @Query("SELECT da FROM DocumentApplication da WHERE da.status = :status ORDER BY da.resolvedDate DESC")
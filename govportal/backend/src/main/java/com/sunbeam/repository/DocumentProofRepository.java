@@ -1,10 +1,20 @@
 package com.sunbeam.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.sunbeam.model.DocumentProof;
 
+import java.util.Collection;
+import java.util.Optional;
+
 @Repository
 public interface DocumentProofRepository extends JpaRepository<DocumentProof, Long>{
+
+    @Query("SELECT dp FROM DocumentProof dp JOIN FETCH dp.application WHERE dp.id = :proofId")
+    Optional<DocumentProof> findByIdWithApplication(@Param("proofId") Long proofId);
+
+    boolean existsByFilePathIn(Collection<String> filePaths);
 }
@@ -0,0 +1,32 @@
+package com.sunbeam.repository;
+
+import com.sunbeam.model.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Locks up to {@code limit} due messages, skipping rows another
+     * dispatcher already holds. Must run in a transaction.
+     */
+    @Query(value = "SELECT * FROM email_outbox " +
+            "WHERE (status = 'PENDING' AND next_attempt_at <= :now) " +
+            "OR (status = 'SENDING' AND lease_expires_at < :now) " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutbox> lockDueMessages(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Locks the given messages, in id order, so a dispatcher can check it
+     * still owns them before recording results. Must run in a transaction.
+     */
+    @Query(value = "SELECT * FROM email_outbox WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<EmailOutbox> lockByIds(@Param("ids") Collection<Long> ids);
+
+    long countByStatus(EmailOutbox.Status status);
+}
@@ -1,10 +1,12 @@
 package com.sunbeam.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import com.sunbeam.model.User;
 import com.sunbeam.model.User.Role;
 
@@ -26,6 +28,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 //	Page<User> findByRole(com.sunbeam.model.User.Role citizen, Pageable pageable);
     
 	long countByRoleAndEnabledTrue(Role verifier);
+
+	// All admin dashboard user figures in one pass; see UserCounts.fromRows
+	@Query("SELECT u.role, u.enabled, u.blocked, COUNT(u) FROM User u GROUP BY u.role, u.enabled, u.blocked")
+	List<Object[]> countGroupedByRoleAndFlags();
 	
 //	List<User> findByRole(com.sunbeam.model.User.Role verifier);
 }
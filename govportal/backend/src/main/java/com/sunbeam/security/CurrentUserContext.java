@@ -0,0 +1,26 @@
+package com.sunbeam.security;
+
+import com.sunbeam.model.User;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the current user for the duration of one HTTP request, so every
+ * service called while handling it shares the same instance instead of
+ * looking the user up again.
+ */
+@Component
+@RequestScope
+public class CurrentUserContext {
+
+    private User user;
+
+    public User resolve(Supplier<User> loader) {
+        if (user == null) {
+            user = loader.get();
+        }
+        return user;
+    }
+}
@@ -1,9 +1,13 @@
 package com.sunbeam.security;
 
+import com.sunbeam.model.CustomUserDetails;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,10 +24,18 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final boolean claimsMode;
 
-    public JwtAuthFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService, PrincipalCache principalCache,
+                         TokenRevocationRegistry revocationRegistry,
+                         @Value("${app.security.auth-mode:lookup}") String authMode) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.revocationRegistry = revocationRegistry;
+        this.claimsMode = "claims".equalsIgnoreCase(authMode);
     }
 
     @Override
@@ -42,23 +54,60 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userEmail = jwtUtil.extractUsername(jwt);
+        final Claims claims;
+        try {
+            // Parsed and verified once; later steps reuse these claims.
+            claims = jwtUtil.parseClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        request.setAttribute(JwtUtil.CLAIMS_ATTRIBUTE, claims);
+        userEmail = claims.getSubject();
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            
-            if (jwtUtil.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+            TokenUserDetails tokenUser = claimsMode && revocationRegistry.isReady()
+                    ? TokenUserDetails.fromClaims(claims)
+                    : null;
+            if (tokenUser != null) {
+                // Claims mode: trust the signed claims unless the user was revoked, no query at all.
+                if (!revocationRegistry.isRevoked(tokenUser.getUser())) {
+                    authenticate(request, tokenUser);
+                }
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            CustomUserDetails userDetails = principalCache.get(userEmail);
+            if (userDetails != null && revocationRegistry.isReady()
+                    && revocationRegistry.isStale(userDetails.getUser())) {
+                // Changed on another node since it was cached.
+                userDetails = null;
+            }
+            if (userDetails == null) {
+                CustomUserDetails loaded = (CustomUserDetails) this.userDetailsService.loadUserByUsername(userEmail);
+                principalCache.put(userEmail, loaded);
+                userDetails = loaded;
+            }
+
+            // Blocked or unverified accounts stay unauthenticated even with a valid token.
+            if (userDetails.isAccountNonLocked() && userDetails.isEnabled()
+                    && jwtUtil.validateToken(claims, userDetails)) {
+                authenticate(request, userDetails);
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(HttpServletRequest request, UserDetails userDetails) {
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
@@ -1,11 +1,15 @@
 package com.sunbeam.security;
 
 
+import com.sunbeam.model.CustomUserDetails;
+import com.sunbeam.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -14,7 +18,6 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
 @Service
 public class JwtUtil {
@@ -25,29 +28,38 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    /**
+     * Request attribute under which JwtAuthFilter keeps the verified claims.
+     */
+    public static final String CLAIMS_ATTRIBUTE = JwtUtil.class.getName() + ".claims";
+
+    // Identity claims embedded in every token, used by the claims-only auth mode.
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_DESIGNATION = "designation";
+    public static final String CLAIM_EPOCH = "epoch";
+
+    // Both are immutable and thread-safe, so they are built once.
+    private Key signInKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
     }
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Verifies the signature and expiry of the token and returns its claims.
+     * This is the only place a token is parsed; callers parse once and read
+     * every claim they need from the result.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, forged or expired
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -66,9 +78,20 @@ public class JwtUtil {
             UserDetails userDetails,
             long expiration
     ) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        if (userDetails instanceof CustomUserDetails customUserDetails) {
+            User user = customUserDetails.getUser();
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole().name());
+            if (user.getDesignation() != null) {
+                claims.put(CLAIM_DESIGNATION, user.getDesignation().name());
+            }
+            claims.put(CLAIM_EPOCH, user.getTokenEpoch());
+        }
+
         return Jwts
                 .builder()
-                .setClaims(extraClaims)
+                .setClaims(claims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
@@ -76,13 +99,15 @@ public class JwtUtil {
                 .compact();
     }
 
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    /**
+     * Checks already verified claims against the loaded user, without parsing again.
+     */
+    public Boolean validateToken(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername())
+                && !claims.getExpiration().before(new Date());
     }
 
     private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signInKey;
     }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.sunbeam.security;
+
+import com.sunbeam.model.CustomUserDetails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, TTL-based cache of authenticated principals keyed by JWT subject
+ * (the user's email), so that JwtAuthFilter does not load the user on every
+ * request. Least recently used entries are evicted once max-size is reached.
+ *
+ * Anything that changes what a principal may do (blocking, deletion,
+ * password changes...) must call {@link #invalidate(String)}. That only
+ * evicts on the local node; other nodes drop their copy once the change
+ * shows up in the TokenRevocationRegistry snapshot (blocking, unblocking,
+ * password, role or designation changes, deletion), i.e. within
+ * app.security.revocation.refresh-ms. Other edits, such as profile fields,
+ * and everything while the snapshot is stale, can be served from another
+ * node's cache for up to ttl-seconds.
+ */
+@Component
+public class PrincipalCache {
+
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+
+    public PrincipalCache(@Value("${app.security.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${app.security.principal-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public CustomUserDetails get(String email) {
+        synchronized (entries) {
+            Entry entry = entries.get(email);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt < System.currentTimeMillis()) {
+                entries.remove(email);
+                return null;
+            }
+            return entry.principal;
+        }
+    }
+
+    public void put(String email, CustomUserDetails principal) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(email, new Entry(principal, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    /**
+     * Drops the cached principal now and, when called inside a transaction,
+     * once more after it commits. The second eviction covers a request that
+     * reloaded the old row between the first eviction and the commit.
+     */
+    public void invalidate(String email) {
+        evict(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(email);
+                }
+            });
+        }
+    }
+
+    private void evict(String email) {
+        synchronized (entries) {
+            entries.remove(email);
+        }
+    }
+
+    private record Entry(CustomUserDetails principal, long expiresAt) {
+    }
+}
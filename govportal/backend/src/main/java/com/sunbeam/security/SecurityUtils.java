@@ -1,22 +1,51 @@
 package com.sunbeam.security;
 
+import com.sunbeam.model.CustomUserDetails;
 import com.sunbeam.model.User;
 import com.sunbeam.repository.UserRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Component
 public class SecurityUtils {
 
     private final UserRepository userRepository;
+    private final ObjectProvider<CurrentUserContext> currentUserContext;
 
-    public SecurityUtils(UserRepository userRepository) {
+    public SecurityUtils(UserRepository userRepository, ObjectProvider<CurrentUserContext> currentUserContext) {
         this.userRepository = userRepository;
+        this.currentUserContext = currentUserContext;
     }
 
+    /**
+     * Returns the authenticated user. Within a web request the user is
+     * resolved once and shared; it is normally the instance JwtAuthFilter
+     * already loaded, so no query is issued at all. In the claims auth mode
+     * it is a lazy reference that is only loaded once a non-id field is read.
+     *
+     * The returned entity is detached and may be shared between requests:
+     * use it for reads and as an association reference, but load a fresh
+     * copy before modifying it.
+     */
     public User getCurrentUser() {
+        if (RequestContextHolder.getRequestAttributes() != null) {
+            return currentUserContext.getObject().resolve(this::loadCurrentUser);
+        }
+        return loadCurrentUser();
+    }
+
+    private User loadCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof TokenUserDetails tokenUser) {
+            // Claims mode: a lazy reference, so callers that only need the id never hit the database.
+            return userRepository.getReferenceById(tokenUser.getUser().getId());
+        }
+        if (authentication.getPrincipal() instanceof CustomUserDetails userDetails) {
+            return userDetails.getUser();
+        }
         String username = authentication.getName();
         return userRepository.findByEmail(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -26,4 +55,4 @@ public class SecurityUtils {
     public static String getCurrentUsername() {
         return SecurityContextHolder.getContext().getAuthentication().getName();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package com.sunbeam.security;
+
+import com.sunbeam.model.User;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records a token revocation whenever a user's token epoch changes or the
+ * user is deleted, inside the transaction that makes the change, so no
+ * code path that bumps the epoch (block, password change, role or
+ * designation change, see {@link User}) can forget to tell the other nodes.
+ */
+@Component
+public class TokenRevocationListener {
+
+    private final TokenRevocationRegistry revocationRegistry;
+
+    public TokenRevocationListener(TokenRevocationRegistry revocationRegistry) {
+        this.revocationRegistry = revocationRegistry;
+    }
+
+    @PostLoad
+    @PostPersist
+    void remember(User user) {
+        user.setLoadedTokenEpoch(user.getTokenEpoch());
+    }
+
+    @PostUpdate
+    void afterUpdate(User user) {
+        if (user.getTokenEpoch() != user.getLoadedTokenEpoch()) {
+            revocationRegistry.record(user.getId(), user.getTokenEpoch());
+            user.setLoadedTokenEpoch(user.getTokenEpoch());
+        }
+    }
+
+    @PostRemove
+    void afterRemove(User user) {
+        revocationRegistry.record(user.getId(), Long.MAX_VALUE);
+    }
+}
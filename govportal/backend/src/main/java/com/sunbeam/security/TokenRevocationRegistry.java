@@ -0,0 +1,154 @@
+package com.sunbeam.security;
+
+import com.sunbeam.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory view of which tokens may no longer be trusted, used by the
+ * claims auth mode instead of loading the user on every request. In the
+ * lookup mode it tells each node which of its cached principals were
+ * revoked on another node (see {@link PrincipalCache}).
+ *
+ * Revocations come from the token_revocations table, one row per token
+ * epoch change (block or unblock, password change, role or designation
+ * change) or user deletion; see {@link TokenRevocationListener}. Each
+ * refresh only reads the rows written since the previous one, plus an
+ * overlap for transactions that committed late, through the revoked_at
+ * index. A revocation older than the token lifetime cannot affect any
+ * unexpired token, so it is dropped from memory and purged from the table.
+ *
+ * The snapshot is refreshed every refresh-ms, so a revocation takes effect
+ * within that interval; if refreshing fails for a while the filter falls
+ * back to a lookup.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    private static final String RECORD_SQL =
+            "INSERT INTO token_revocations (user_id, token_epoch, revoked_at) VALUES (?, ?, NOW(3))";
+
+    private static final String RECENT_SQL =
+            "SELECT user_id, MAX(token_epoch) FROM token_revocations " +
+            "WHERE revoked_at >= NOW(3) - INTERVAL ? SECOND GROUP BY user_id";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM token_revocations WHERE revoked_at < NOW(3) - INTERVAL ? SECOND LIMIT ?";
+
+    private static final int PURGE_CHUNK_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long maxStalenessMillis;
+    private final long overlapMillis;
+    private final long tokenLifetimeMillis;
+
+    private volatile Snapshot snapshot;
+
+    public TokenRevocationRegistry(JdbcTemplate jdbcTemplate,
+                                   @Value("${app.security.revocation.refresh-ms:5000}") long refreshMillis,
+                                   @Value("${app.security.revocation.overlap-ms:60000}") long overlapMillis,
+                                   @Value("${jwt.expiration}") long tokenLifetimeMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxStalenessMillis = refreshMillis * 3;
+        this.overlapMillis = overlapMillis;
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+    }
+
+    /**
+     * Records that tokens of the user with an epoch below {@code tokenEpoch}
+     * are revoked. Joins the caller's transaction, so the revocation becomes
+     * visible exactly when the change that caused it commits.
+     */
+    public void record(long userId, long tokenEpoch) {
+        jdbcTemplate.update(RECORD_SQL, userId, tokenEpoch);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-ms:5000}")
+    public void refresh() {
+        try {
+            Snapshot current = snapshot;
+            long now = System.currentTimeMillis();
+            // The first load covers every revocation that can still matter; later ones what is new since the last.
+            long windowMillis = current == null
+                    ? tokenLifetimeMillis
+                    : Math.min(tokenLifetimeMillis, now - current.loadedAt() + overlapMillis);
+
+            Map<Long, Revocation> revocations = new HashMap<>();
+            if (current != null) {
+                current.revocations().forEach((userId, revocation) -> {
+                    if (revocation.seenAt() + tokenLifetimeMillis >= now) {
+                        revocations.put(userId, revocation);
+                    }
+                });
+            }
+            jdbcTemplate.query(RECENT_SQL, rs -> {
+                revocations.merge(rs.getLong(1), new Revocation(rs.getLong(2), now),
+                        (seen, loaded) -> loaded.epoch() >= seen.epoch() ? loaded : seen);
+            }, Math.max(1, (windowMillis + 999) / 1000));
+
+            snapshot = new Snapshot(Map.copyOf(revocations), now);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to refresh token revocation snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes revocations older than the token lifetime. Any node may run it;
+     * deleting the same rows twice is harmless.
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.purge-interval-ms:3600000}")
+    public void purge() {
+        try {
+            long seconds = (tokenLifetimeMillis + overlapMillis) / 1000 + 1;
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(PURGE_SQL, seconds, PURGE_CHUNK_SIZE);
+            } while (deleted == PURGE_CHUNK_SIZE);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to purge expired token revocations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * False until the first load succeeds, or when refreshing has been
+     * failing for a while; callers must then verify the user in the database.
+     */
+    public boolean isReady() {
+        Snapshot current = snapshot;
+        return current != null && System.currentTimeMillis() - current.loadedAt() <= maxStalenessMillis;
+    }
+
+    /**
+     * Whether a token carrying this user's id and epoch was revoked: the
+     * user was blocked, changed password, role or designation, or deleted
+     * since the token was issued.
+     */
+    public boolean isRevoked(User tokenUser) {
+        Revocation revocation = snapshot.revocations().get(tokenUser.getId());
+        return revocation != null && tokenUser.getTokenEpoch() < revocation.epoch();
+    }
+
+    /**
+     * Whether a principal loaded earlier no longer matches the database. Any
+     * change to blocked, role or designation bumps the epoch, so this is the
+     * same check as for a token.
+     */
+    public boolean isStale(User cachedUser) {
+        return isRevoked(cachedUser);
+    }
+
+    private record Revocation(long epoch, long seenAt) {
+    }
+
+    private record Snapshot(Map<Long, Revocation> revocations, long loadedAt) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.sunbeam.security;
+
+import com.sunbeam.model.CustomUserDetails;
+import com.sunbeam.model.User;
+import io.jsonwebtoken.Claims;
+
+/**
+ * Principal rebuilt from JWT claims alone, used in the claims auth mode.
+ * The wrapped user only carries id, email, role and designation; anything
+ * else must be read through {@link SecurityUtils#getCurrentUser()}, which
+ * loads the row lazily.
+ */
+public class TokenUserDetails extends CustomUserDetails {
+
+    private TokenUserDetails(User user) {
+        super(user);
+    }
+
+    /**
+     * Returns null when the token predates the identity claims, in which
+     * case the caller should fall back to a lookup.
+     */
+    public static TokenUserDetails fromClaims(Claims claims) {
+        Number userId = claims.get(JwtUtil.CLAIM_USER_ID, Number.class);
+        String role = claims.get(JwtUtil.CLAIM_ROLE, String.class);
+        if (userId == null || role == null || claims.get(JwtUtil.CLAIM_EPOCH) == null) {
+            return null;
+        }
+        String designation = claims.get(JwtUtil.CLAIM_DESIGNATION, String.class);
+
+        User user = User.builder()
+                .id(userId.longValue())
+                .email(claims.getSubject())
+                .role(User.Role.valueOf(role))
+                .designation(designation != null ? User.Designation.valueOf(designation) : null)
+                .tokenEpoch(claims.get(JwtUtil.CLAIM_EPOCH, Number.class).longValue())
+                .enabled(true)
+                .blocked(false)
+                .build();
+        return new TokenUserDetails(user);
+    }
+}
@@ -0,0 +1,34 @@
+package com.sunbeam.service;
+
+import com.sunbeam.model.AuditLog;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface AuditExportService {
+
+	enum Format {
+		CSV("text/csv"),
+		NDJSON("application/x-ndjson");
+
+		private final String contentType;
+
+		Format(String contentType) {
+			this.contentType = contentType;
+		}
+
+		public String getContentType() {
+			return contentType;
+		}
+	}
+
+	/**
+	 * Writes every matching audit entry, oldest first, to the stream. Rows are
+	 * read with a forward-only cursor and written as they arrive, so memory
+	 * use does not depend on how many rows match. All filters are optional;
+	 * the range is [from, to).
+	 */
+	void export(Format format, Long userId, AuditLog.ActionType actionType,
+				LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException;
+}
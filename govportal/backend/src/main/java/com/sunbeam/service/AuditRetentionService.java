@@ -0,0 +1,12 @@
+package com.sunbeam.service;
+
+public interface AuditRetentionService {
+
+	/**
+	 * Keeps audit_log in shape: with partitioning enabled it makes sure the
+	 * upcoming months have partitions and drops the ones past retention,
+	 * otherwise it deletes expired rows in small chunks. Safe to call from
+	 * several nodes; only one runs at a time.
+	 */
+	void runMaintenance();
+}
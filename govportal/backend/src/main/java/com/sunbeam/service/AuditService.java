@@ -1,12 +1,28 @@
 package com.sunbeam.service;
 import com.sunbeam.dto.response.AuditLogResponse;
+import com.sunbeam.dto.response.AuditWriterStatsResponse;
+import com.sunbeam.dto.response.CursorPage;
+import com.sunbeam.model.AuditLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+
 public interface AuditService {
     Page<AuditLogResponse> getAuditLogs(org.springframework.data.domain.Pageable pageable);
     Page<AuditLogResponse> getUserAuditLogs(Long userId, org.springframework.data.domain.Pageable pageable);
+    /**
+     * Keyset-paginated search, newest first. All filters are optional; the
+     * range is [from, to).
+     */
+    CursorPage<AuditLogResponse> searchAuditLogs(Long userId, AuditLog.ActionType actionType,
+                                                LocalDateTime from, LocalDateTime to, String cursor, int size);
     void logActivity(String action, String details);
     void logDocumentStatusChange(Long documentId, String action, String remarks);
+
+    /**
+     * Queue depth, drops and write failures of the audit writer.
+     */
+    AuditWriterStatsResponse getWriterStats();
     
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.sunbeam.service;
+
+import com.sunbeam.model.CertificateJob;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface CertificateJobService {
+
+	/**
+	 * Queues certificate generation for an approved application. Call it inside
+	 * the approving transaction: the job only becomes visible to workers once
+	 * that transaction commits.
+	 */
+	void enqueue(Long applicationId);
+
+	/**
+	 * Jobs that used up all attempts; their applications stay at
+	 * UNDER_CERTIFICATE_GENERATION until requeued.
+	 */
+	Page<CertificateJob> getFailedJobs(Pageable pageable);
+
+	/**
+	 * Gives a FAILED job a fresh set of attempts.
+	 *
+	 * @throws com.sunbeam.exception.ResourceNotFoundException if the application has no job
+	 * @throws com.sunbeam.exception.WorkflowException if the job is not FAILED
+	 */
+	CertificateJob requeue(Long applicationId);
+}
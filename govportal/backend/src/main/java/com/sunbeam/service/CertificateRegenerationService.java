@@ -0,0 +1,21 @@
+package com.sunbeam.service;
+
+import com.sunbeam.dto.response.CertificateRegenerationStatusResponse;
+
+public interface CertificateRegenerationService {
+
+	/**
+	 * Starts re-rendering the certificates of all approved applications, or of
+	 * one document type only, in the background.
+	 *
+	 * @throws IllegalStateException if a regeneration is already running
+	 */
+	CertificateRegenerationStatusResponse start(String documentType);
+
+	CertificateRegenerationStatusResponse getStatus();
+
+	/**
+	 * Stops the running regeneration after the chunk in progress.
+	 */
+	CertificateRegenerationStatusResponse cancel();
+}
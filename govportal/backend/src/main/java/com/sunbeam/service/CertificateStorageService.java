@@ -0,0 +1,57 @@
+package com.sunbeam.service;
+
+import java.util.Collection;
+
+public interface CertificateStorageService {
+
+	/**
+	 * Object key under which the certificate of an application is stored.
+	 */
+	static String certificateKey(Long applicationId) {
+		return "certificates/" + applicationId + ".pdf";
+	}
+
+	/**
+	 * Object key of a re-rendered certificate. Each regeneration writes a new
+	 * object, so the live one stays in place until the row points elsewhere.
+	 */
+	static String certificateKey(Long applicationId, long version) {
+		return "certificates/" + applicationId + "-" + version + ".pdf";
+	}
+
+	/**
+	 * Uploads the certificate PDF and returns its object key. When called inside
+	 * a transaction the object is removed again if that transaction rolls back,
+	 * so the bucket never holds a certificate for an unapproved application.
+	 */
+	String storeCertificate(Long applicationId, byte[] pdf);
+
+	/**
+	 * Uploads the certificate PDF under the given key, with the same rollback
+	 * cleanup as {@link #storeCertificate(Long, byte[])}.
+	 */
+	String storeCertificate(String objectKey, byte[] pdf);
+
+	/**
+	 * Removes certificate objects that no application refers to any more.
+	 * Failures are logged, not thrown; an orphaned object is harmless.
+	 */
+	void deleteCertificates(Collection<String> objectKeys);
+
+	/**
+	 * Reads a certificate still held in the legacy certificate_pdf column.
+	 *
+	 * @return the PDF, or null if the application has no legacy certificate
+	 */
+	byte[] readLegacyCertificate(Long applicationId);
+
+	/**
+	 * Moves a certificate still held in the legacy certificate_pdf column to
+	 * S3, records its key and moves an application still waiting at
+	 * UNDER_CERTIFICATE_GENERATION to CERTIFICATE_READY. Uploads
+	 * synchronously; meant for the background migration only.
+	 *
+	 * @return the new object key, or null if the application has no legacy certificate
+	 */
+	String migrateLegacyCertificate(Long applicationId);
+}
@@ -0,0 +1,31 @@
+package com.sunbeam.service;
+
+import com.sunbeam.dto.DailyReportData;
+import com.sunbeam.dto.FileStream;
+import com.sunbeam.model.DailyReport;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+public interface DailyReportService {
+
+	/**
+	 * Computes the figures of one day straight from the database, without
+	 * loading any entities.
+	 */
+	DailyReportData aggregate(LocalDate date);
+
+	/**
+	 * Renders the report for the given day and stores it, replacing any
+	 * earlier copy.
+	 */
+	DailyReport generateAndStore(LocalDate date) throws IOException;
+
+	/**
+	 * Opens the stored report of a day; the future completes once storage answered.
+	 *
+	 * @throws com.sunbeam.exception.ResourceNotFoundException if no report was generated for that day
+	 */
+	CompletableFuture<FileStream> openReport(LocalDate date);
+}
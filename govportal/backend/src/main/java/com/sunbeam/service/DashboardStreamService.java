@@ -0,0 +1,17 @@
+package com.sunbeam.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface DashboardStreamService {
+
+	/**
+	 * Opens a live dashboard stream. The client first receives either the
+	 * events it missed since lastEventId, or a fresh "stats" snapshot when
+	 * they are no longer available, then "transition" events as applications
+	 * move through the workflow and a "stats" event whenever the totals
+	 * change.
+	 *
+	 * @param lastEventId the Last-Event-ID sent by a reconnecting client, or null
+	 */
+	SseEmitter subscribe(String lastEventId);
+}
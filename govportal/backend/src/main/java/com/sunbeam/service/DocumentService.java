@@ -1,22 +1,25 @@
 package com.sunbeam.service;
 
+import com.sunbeam.dto.FileStream;
 import com.sunbeam.dto.request.DocumentApplicationRequest;
+import com.sunbeam.dto.request.PresignedSubmissionRequest;
+import com.sunbeam.dto.request.PresignedUploadRequest;
 import com.sunbeam.dto.response.DocumentApplicationDetailsResponse;
 import com.sunbeam.dto.response.DocumentApplicationResponse;
+import com.sunbeam.dto.response.PresignedUrlResponse;
 import com.sunbeam.model.DocumentApplication;
 import com.sunbeam.model.DocumentProof;
 import com.sunbeam.model.User;
 
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface DocumentService {
-	DocumentApplication submitApplication(User applicant, DocumentApplicationRequest request,List<MultipartFile> files) throws IOException;
+	CompletableFuture<DocumentApplication> submitApplication(User applicant, DocumentApplicationRequest request,List<MultipartFile> files);
 
 	DocumentApplicationResponse getApplicationById(Long id);
 	
@@ -26,7 +29,9 @@ public interface DocumentService {
 
 	Page<DocumentApplicationResponse> getAllApplications(Pageable pageable);
 
-	byte[] getCertificatePdf(Long applicationId);
+	CompletableFuture<FileStream> openCertificate(Long applicationId);
+
+	PresignedUrlResponse presignCertificate(Long applicationId);
 
 //	DocumentApplicationResponse approveApplication(Long applicationId, String remarks);
 
@@ -38,7 +43,15 @@ public interface DocumentService {
 
 	DocumentProof getDocumentProof(Long proofId);
 	
-	Resource viewDocumentProof(Long documentProofId) throws IOException;
+	CompletableFuture<FileStream> openDocumentProof(Long documentProofId, String range);
+
+	boolean isPresignedDelivery();
+
+	PresignedUrlResponse presignDocumentProof(Long documentProofId);
+
+	List<PresignedUrlResponse> presignProofUploads(User applicant, PresignedUploadRequest request);
+
+	DocumentApplication confirmPresignedSubmission(User applicant, PresignedSubmissionRequest request);
 
 	Page<DocumentApplicationResponse> getApprovalPassesApplicationsOfCitizen(Pageable pageable);
 }
\ No newline at end of file
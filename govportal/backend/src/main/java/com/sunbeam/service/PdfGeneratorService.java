@@ -1,10 +1,10 @@
 package com.sunbeam.service;
 
+import com.sunbeam.dto.DailyReportData;
 import com.sunbeam.model.DocumentApplication;
 import java.io.IOException;
-import java.time.LocalDate;
 
 public interface PdfGeneratorService {
     byte[] generateCertificate(DocumentApplication application) throws IOException;
-    byte[] generateDailyReport(LocalDate date) throws IOException;
+    byte[] generateDailyReport(DailyReportData data) throws IOException;
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.sunbeam.service;
+
+import com.sunbeam.dto.StoredObject;
+import com.sunbeam.dto.response.PresignedUrlResponse;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface StorageService {
+
+	/**
+	 * Uploads all files in parallel without blocking the caller. Either every
+	 * file is stored and the future yields one entry per input file (same
+	 * order), or nothing is left behind in the bucket and the future fails
+	 * with a FileStorageException.
+	 */
+	CompletableFuture<List<StoredObject>> uploadProofs(List<MultipartFile> files);
+
+	/**
+	 * Stores a small, already materialised object such as a generated certificate.
+	 * Blocks until the object is stored; only called from background workers.
+	 *
+	 * @throws com.sunbeam.exception.FileStorageException if the object could not be stored
+	 */
+	void putObject(String objectKey, byte[] content, String contentType);
+
+	/**
+	 * Best-effort delete, used to compensate uploads whose database write failed.
+	 * May return before the objects are gone.
+	 */
+	void deleteObjects(Collection<String> objectKeys);
+
+	/**
+	 * Opens the object for reading. The future completes once the response
+	 * headers arrived; the caller must close the stream it yields.
+	 *
+	 * @param range an HTTP byte range such as "bytes=0-1023", or null for the whole object
+	 */
+	CompletableFuture<ResponseInputStream<GetObjectResponse>> getObject(String objectKey, String range);
+
+	/**
+	 * Reads object metadata without downloading it.
+	 *
+	 * @throws com.sunbeam.exception.ResourceNotFoundException if the object does not exist
+	 */
+	HeadObjectResponse headObject(String objectKey);
+
+	/**
+	 * Signs a short-lived GET URL that serves the object inline under the given file name.
+	 */
+	PresignedUrlResponse presignGet(String objectKey, String fileName, String contentType);
+
+	/**
+	 * Signs a short-lived PUT URL. The client must send exactly the given
+	 * Content-Type and Content-Length, otherwise S3 rejects the upload.
+	 */
+	PresignedUrlResponse presignPut(String objectKey, String contentType, long size);
+}
@@ -1,14 +1,15 @@
 package com.sunbeam.service;
 
+import com.sunbeam.dto.FileStream;
 import com.sunbeam.dto.response.DocumentApplicationDetailsResponse;
 import com.sunbeam.dto.response.DocumentApplicationResponse;
+import com.sunbeam.dto.response.CursorPage;
 import com.sunbeam.dto.response.VerificationStatsResponse;
 import com.sunbeam.model.DocumentApplication;
 
-import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -23,9 +24,41 @@ public interface VerificationService {
     VerificationStatsResponse getVerificationStats();
 //    DocumentApplicationResponse escalateToSeniorVerifier(Long applicationId, String reason);
     Page<DocumentApplicationResponse>  getPendingApplications(Pageable pageable);
+
+    /**
+     * Keyset-paginated work queue of the desk matching the current verifier's
+     * designation, oldest submission first. Pass the previous page's
+     * nextCursor as cursor to continue.
+     */
+    CursorPage<DocumentApplicationResponse> getPendingQueue(String cursor, int size);
+
+    /**
+     * Keyset-paginated work queue of the given desk, oldest submission first.
+     */
+    CursorPage<DocumentApplicationResponse> getDeskQueue(String desk, String cursor, int size);
+
+    /**
+     * Reserves up to count more applications from the head of the current
+     * verifier's desk queue, skipping ones other verifiers hold, and returns
+     * every application the verifier currently holds. A claim lasts
+     * app.verifier.claim.lease-ms; approve, reject and request changes
+     * require it.
+     */
+    List<DocumentApplicationResponse> claimNextApplications(int count);
+
+    /**
+     * Extends the current verifier's claim on an application.
+     *
+     * @throws com.sunbeam.exception.WorkflowException if the claim is not held or has lapsed
+     */
+    DocumentApplicationResponse renewClaim(Long applicationId);
+
+    /**
+     * Gives an application back to the desk queue.
+     */
+    void releaseClaim(Long applicationId);
 	ResponseEntity<Page<DocumentApplicationResponse>> getApprovedApplicationsByVerifier(Pageable pageable, long verifierId);
-	Resource viewDocumentProof(Long documentProofId) throws IOException;
-	String getDocumentProofContentType(Long documentProofId);
+	CompletableFuture<FileStream> openDocumentProof(Long documentProofId, String range);
 	
 	
     
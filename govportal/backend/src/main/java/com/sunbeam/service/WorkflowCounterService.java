@@ -0,0 +1,32 @@
+package com.sunbeam.service;
+
+import com.sunbeam.dto.ApplicationCounts;
+import com.sunbeam.model.DocumentApplication;
+
+public interface WorkflowCounterService {
+
+	/**
+	 * Counts a newly submitted application. Must be called inside the
+	 * transaction that inserts it.
+	 */
+	void recordSubmission(DocumentApplication application);
+
+	/**
+	 * Moves one application from its previous (desk, status) to its current
+	 * one. Must be called inside the transaction that changes it; the counter
+	 * update commits or rolls back with it.
+	 */
+	void recordTransition(DocumentApplication application, String fromDesk,
+						  DocumentApplication.ApplicationStatus fromStatus);
+
+	/**
+	 * Current totals by status and desk, read from the counters table.
+	 */
+	ApplicationCounts getCounts();
+
+	/**
+	 * Recomputes the counters from document_applications and corrects any
+	 * drift. Safe to call from several nodes; only one runs at a time.
+	 */
+	void reconcile();
+}
@@ -0,0 +1,145 @@
+package com.sunbeam.service.impl;
+
+import com.sunbeam.dto.StoredObject;
+import com.sunbeam.dto.response.PresignedUrlResponse;
+import com.sunbeam.exception.FileStorageException;
+import com.sunbeam.service.StorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Shared upload orchestration for the blocking and the async S3 storage modes.
+ * Subclasses only decide how a single object is transferred.
+ */
+public abstract class AbstractS3StorageService implements StorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractS3StorageService.class);
+
+    @Value("${aws.s3.bucket-name}")
+    protected String bucketName;
+
+    @Value("${app.storage.presign.get-ttl-seconds:300}")
+    private long getTtlSeconds;
+
+    @Value("${app.storage.presign.put-ttl-seconds:900}")
+    private long putTtlSeconds;
+
+    @Autowired
+    private S3Presigner s3Presigner;
+
+    @Override
+    public CompletableFuture<List<StoredObject>> uploadProofs(List<MultipartFile> files) {
+        List<CompletableFuture<StoredObject>> uploads = new ArrayList<>();
+        try {
+            for (MultipartFile file : files) {
+                uploads.add(uploadProof(newObjectKey(file), file));
+            }
+        } catch (FileStorageException e) {
+            return rollBack(uploads, e);
+        }
+
+        // allOf only completes once every upload has settled, so the
+        // successful ones can be rolled back safely.
+        return CompletableFuture.allOf(uploads.toArray(new CompletableFuture[0]))
+                .handle((ignored, failure) -> failure == null
+                        ? CompletableFuture.completedFuture(uploads.stream().map(CompletableFuture::join).toList())
+                        : rollBack(uploads, failure))
+                .thenCompose(result -> result);
+    }
+
+    /**
+     * Waits for the uploads that were started, deletes the ones that made it
+     * and fails with a FileStorageException.
+     */
+    private CompletableFuture<List<StoredObject>> rollBack(List<CompletableFuture<StoredObject>> uploads, Throwable failure) {
+        return CompletableFuture.allOf(uploads.toArray(new CompletableFuture[0]))
+                .handle((ignored, ex) -> {
+                    List<String> uploadedKeys = uploads.stream()
+                            .filter(upload -> !upload.isCompletedExceptionally())
+                            .map(upload -> upload.join().getObjectKey())
+                            .toList();
+                    deleteObjects(uploadedKeys);
+
+                    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause() : failure;
+                    logger.error("Error uploading proofs to S3: {}", cause.getMessage(), cause);
+                    if (cause instanceof FileStorageException storageException) {
+                        throw storageException;
+                    }
+                    throw new FileStorageException("Failed to upload files to S3.");
+                });
+    }
+
+    /**
+     * Starts the transfer of one proof. The returned future completes once the
+     * object is fully stored in the bucket.
+     */
+    protected abstract CompletableFuture<StoredObject> uploadProof(String objectKey, MultipartFile file);
+
+    @Override
+    public PresignedUrlResponse presignGet(String objectKey, String fileName, String contentType) {
+        PresignedGetObjectRequest presigned = s3Presigner.presignGetObject(builder -> builder
+                .signatureDuration(Duration.ofSeconds(getTtlSeconds))
+                .getObjectRequest(GetObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectKey)
+                        .responseContentType(contentType)
+                        .responseContentDisposition("inline; filename=\"" + fileName + "\"")
+                        .build()));
+
+        return PresignedUrlResponse.builder()
+                .url(presigned.url().toString())
+                .method("GET")
+                .expiresAt(LocalDateTime.ofInstant(presigned.expiration(), ZoneId.systemDefault()))
+                .build();
+    }
+
+    @Override
+    public PresignedUrlResponse presignPut(String objectKey, String contentType, long size) {
+        PresignedPutObjectRequest presigned = s3Presigner.presignPutObject(builder -> builder
+                .signatureDuration(Duration.ofSeconds(putTtlSeconds))
+                .putObjectRequest(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectKey)
+                        .contentType(contentType)
+                        .contentLength(size)
+                        .build()));
+
+        return PresignedUrlResponse.builder()
+                .url(presigned.url().toString())
+                .method("PUT")
+                .objectKey(objectKey)
+                .expiresAt(LocalDateTime.ofInstant(presigned.expiration(), ZoneId.systemDefault()))
+                .build();
+    }
+
+    protected StoredObject toStoredObject(String objectKey, MultipartFile file) {
+        return StoredObject.builder()
+                .originalFileName(file.getOriginalFilename())
+                .objectKey(objectKey)
+                .contentType(file.getContentType())
+                .size(file.getSize())
+                .build();
+    }
+
+    private String newObjectKey(MultipartFile file) {
+        return "documents/" + UUID.randomUUID() + "_" + file.getOriginalFilename();
+    }
+}
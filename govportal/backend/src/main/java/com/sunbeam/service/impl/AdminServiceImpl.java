@@ -1,5 +1,7 @@
 package com.sunbeam.service.impl;
 
+import com.sunbeam.dto.ApplicationCounts;
+import com.sunbeam.dto.UserCounts;
 import com.sunbeam.dto.request.CreateVerifierRequest;
 import com.sunbeam.dto.response.AdminStatsResponse;
 import com.sunbeam.dto.response.DocumentApplicationResponse;
@@ -9,7 +11,9 @@ import com.sunbeam.model.*;
 import com.sunbeam.model.User.Designation;
 import com.sunbeam.repository.DocumentApplicationRepository;
 import com.sunbeam.repository.UserRepository;
+import com.sunbeam.security.PrincipalCache;
 import com.sunbeam.service.AdminService;
+import com.sunbeam.service.WorkflowCounterService;
 import lombok.RequiredArgsConstructor;
 
 import org.slf4j.Logger;
@@ -30,6 +34,8 @@ public class AdminServiceImpl implements AdminService {
     private final UserRepository userRepository;
     private final DocumentApplicationRepository appRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final WorkflowCounterService workflowCounterService;
     private static final Logger logger = LoggerFactory.getLogger(AdminServiceImpl.class);
     
     
@@ -77,6 +83,7 @@ public class AdminServiceImpl implements AdminService {
             throw new IllegalArgumentException("User is not a verifier" + verifierId);
         }       
         userRepository.delete(verifier);
+        principalCache.invalidate(verifier.getEmail());
         logger.info("Deleted verifier account with ID: {}", verifierId);
     }
     
@@ -97,8 +104,10 @@ public class AdminServiceImpl implements AdminService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found with Id : "+userId));
       
+        // Bumps the token epoch when the flag actually changes.
         user.setBlocked(block);
         User updatedUser = userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
         logger.info("User  block status changed for ID: {} to {}", userId, block);
         return mapToUserResponse(updatedUser);
     }
@@ -107,12 +116,15 @@ public class AdminServiceImpl implements AdminService {
 
     @Override
     public AdminStatsResponse getSystemStatistics() {
-    	try {return AdminStatsResponse.builder()
-                .totalCitizens(userRepository.countByRole(User.Role.CITIZEN))
-                .activeVerifiers(userRepository.countByRoleAndEnabledTrue(User.Role.VERIFIER))
-                .pendingApplications(appRepository.countByStatus(DocumentApplication.ApplicationStatus.PENDING))
-                .approvedApplications(appRepository.countByStatus(DocumentApplication.ApplicationStatus.APPROVED))
-                .blockedAccounts(userRepository.countByBlockedTrue())
+    	try {
+    		UserCounts users = UserCounts.fromRows(userRepository.countGroupedByRoleAndFlags());
+    		ApplicationCounts applications = workflowCounterService.getCounts();
+    		return AdminStatsResponse.builder()
+                .totalCitizens(users.getCitizens())
+                .activeVerifiers(users.getActiveVerifiers())
+                .pendingApplications(applications.status(DocumentApplication.ApplicationStatus.PENDING))
+                .approvedApplications(applications.status(DocumentApplication.ApplicationStatus.APPROVED))
+                .blockedAccounts(users.getBlocked())
                 .build();
 			
 		} catch (Exception e) {
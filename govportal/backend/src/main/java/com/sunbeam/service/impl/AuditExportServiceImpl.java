@@ -0,0 +1,168 @@
+package com.sunbeam.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sunbeam.model.AuditLog;
+import com.sunbeam.service.AuditExportService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class AuditExportServiceImpl implements AuditExportService {
+
+    private static final String[] COLUMNS =
+            {"id", "timestamp", "user_id", "user_email", "action_type", "action", "details"};
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public AuditExportServiceImpl(@Qualifier("streamingJdbcTemplate") JdbcTemplate streamingJdbcTemplate,
+                                  ObjectMapper objectMapper) {
+        this.streamingJdbcTemplate = streamingJdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void export(Format format, Long userId, AuditLog.ActionType actionType,
+                       LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        // Only the filters in use go into the WHERE clause, so MySQL can pick
+        // the matching (..., timestamp) index and read it in order.
+        StringBuilder sql = new StringBuilder(
+                "SELECT al.id, al.`timestamp`, al.user_id, u.email, al.action_type, al.action, al.details " +
+                "FROM audit_log al LEFT JOIN `user` u ON u.id = al.user_id WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (userId != null) {
+            sql.append(" AND al.user_id = ?");
+            params.add(userId);
+        }
+        if (actionType != null) {
+            sql.append(" AND al.action_type = ?");
+            params.add(actionType.name());
+        }
+        if (from != null) {
+            sql.append(" AND al.`timestamp` >= ?");
+            params.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND al.`timestamp` < ?");
+            params.add(Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY al.`timestamp`, al.id");
+
+        RowWriter writer = format == Format.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+        try {
+            streamingJdbcTemplate.query(sql.toString(), rs -> {
+                try {
+                    writer.write(rs);
+                } catch (IOException e) {
+                    // Usually the client went away; abort the scan.
+                    throw new UncheckedIOException(e);
+                }
+            }, params.toArray());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+    }
+
+    private static String timestamp(ResultSet rs) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(2);
+        return timestamp != null ? timestamp.toLocalDateTime().toString() : null;
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= COLUMNS.length; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                writeField(i == 2 ? timestamp(rs) : rs.getString(i));
+            }
+            writer.write("\r\n");
+        }
+
+        // RFC 4180: quote fields containing separators, quotes or line breaks.
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField(COLUMNS[0], rs.getLong(1));
+            generator.writeStringField(COLUMNS[1], timestamp(rs));
+            long userId = rs.getLong(3);
+            if (rs.wasNull()) {
+                generator.writeNullField(COLUMNS[2]);
+            } else {
+                generator.writeNumberField(COLUMNS[2], userId);
+            }
+            for (int i = 4; i <= COLUMNS.length; i++) {
+                generator.writeStringField(COLUMNS[i - 1], rs.getString(i));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
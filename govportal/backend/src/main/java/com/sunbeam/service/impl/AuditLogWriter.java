@@ -0,0 +1,220 @@
+package com.sunbeam.service.impl;
+
+import com.sunbeam.dto.response.AuditWriterStatsResponse;
+import com.sunbeam.model.AuditLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes audit events with JDBC batch inserts instead of one JPA save each
+ * (AuditLog uses IDENTITY ids, which Hibernate cannot batch).
+ *
+ * Two durability modes, chosen with app.audit.durability:
+ * <ul>
+ *   <li>async (default): events are handed to a bounded in-memory queue once
+ *   the caller's transaction commits and flushed in batches by a dedicated
+ *   writer thread. When the queue is full the event is dropped and counted
+ *   rather than slowing the request down; queued events are lost if the
+ *   process dies.</li>
+ *   <li>commit: the events of a transaction are inserted as one batch just
+ *   before it commits, so they are exactly as durable as the change they
+ *   describe.</li>
+ * </ul>
+ * Events raised inside a transaction that rolls back are never written.
+ */
+@Component
+public class AuditLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_log (user_id, action, details, `timestamp`, action_type) VALUES (?, ?, ?, ?, ?)";
+
+    public enum Durability {
+        ASYNC, COMMIT
+    }
+
+    public record AuditEvent(Long userId, String action, String details, LocalDateTime timestamp,
+                             AuditLog.ActionType actionType) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Durability durability;
+    private final BlockingQueue<AuditEvent> queue;
+    private final int queueCapacity;
+
+    @Value("${app.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          @Value("${app.audit.durability:async}") String durability,
+                          @Value("${app.audit.queue-capacity:10000}") int queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.durability = Durability.valueOf(durability.toUpperCase());
+        this.queueCapacity = queueCapacity;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        if (durability != Durability.ASYNC) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::drainLoop, "AuditLogWriter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Flushes whatever is still queued before the data source goes away.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    public void write(AuditEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (durability == Durability.ASYNC) {
+                enqueue(event);
+            } else {
+                insertBatch(List.of(event));
+            }
+            return;
+        }
+        transactionEvents().add(event);
+    }
+
+    public AuditWriterStatsResponse getStats() {
+        return AuditWriterStatsResponse.builder()
+                .durability(durability.name())
+                .queueDepth(queue.size())
+                .queueCapacity(queueCapacity)
+                .enqueued(enqueued.get())
+                .written(written.get())
+                .dropped(dropped.get())
+                .failed(failed.get())
+                .build();
+    }
+
+    /**
+     * Collects the events of the current transaction; the first call
+     * registers the synchronization that writes them out.
+     */
+    @SuppressWarnings("unchecked")
+    private List<AuditEvent> transactionEvents() {
+        List<AuditEvent> events = (List<AuditEvent>) TransactionSynchronizationManager.getResource(this);
+        if (events != null) {
+            return events;
+        }
+        List<AuditEvent> newEvents = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, newEvents);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (durability == Durability.COMMIT) {
+                    insertBatch(newEvents);
+                }
+            }
+
+            @Override
+            public void afterCommit() {
+                if (durability == Durability.ASYNC) {
+                    newEvents.forEach(AuditLogWriter.this::enqueue);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(AuditLogWriter.this);
+            }
+        });
+        return newEvents;
+    }
+
+    private void enqueue(AuditEvent event) {
+        if (queue.offer(event)) {
+            enqueued.incrementAndGet();
+        } else if (dropped.incrementAndGet() % 1000 == 1) {
+            logger.warn("Audit queue full ({} events), dropping audit events; {} dropped so far",
+                    queueCapacity, dropped.get());
+        }
+    }
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEvent first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                insertBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Audit writer error: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void insertBatch(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+                ps.setObject(1, event.userId(), Types.BIGINT);
+                ps.setString(2, event.action());
+                ps.setString(3, event.details());
+                ps.setTimestamp(4, Timestamp.valueOf(event.timestamp()));
+                ps.setString(5, event.actionType() != null ? event.actionType().name() : null);
+            });
+            written.addAndGet(events.size());
+        } catch (DataAccessException e) {
+            failed.addAndGet(events.size());
+            logger.error("Failed to write {} audit event(s): {}", events.size(), e.getMessage(), e);
+            if (durability == Durability.COMMIT) {
+                throw e;
+            }
+        }
+    }
+}
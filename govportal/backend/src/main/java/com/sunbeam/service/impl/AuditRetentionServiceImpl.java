@@ -0,0 +1,237 @@
+package com.sunbeam.service.impl;
+
+import com.sunbeam.repository.AuditLogRepository;
+import com.sunbeam.service.AuditRetentionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Monthly partitions for audit_log plus retention.
+ *
+ * With app.audit.partitioning.enabled the table is RANGE COLUMNS partitioned
+ * on timestamp, one partition per month (pYYYYMM) and a trailing pfuture
+ * catch-all. Queries bounded on timestamp only touch the matching months,
+ * and expired months are removed with DROP PARTITION, which is a metadata
+ * operation instead of a huge DELETE. The first run converts an existing
+ * table in place (drops the user FK, widens the primary key to
+ * (id, timestamp)); on a large table that ALTER copies it once, so plan it
+ * for a quiet window. The primary key makes timestamp NOT NULL, and audit
+ * entries are not edited to get there: while any row has a NULL timestamp
+ * the conversion is skipped, the affected ids are logged, and retention
+ * falls back to chunked deletes until those rows are dealt with by hand.
+ *
+ * Without partitioning, expired rows are deleted in chunks of
+ * app.audit.retention.delete-chunk-size. app.audit.retention.months = 0
+ * keeps everything.
+ */
+@Service
+public class AuditRetentionServiceImpl implements AuditRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditRetentionServiceImpl.class);
+
+    private static final String LOCK_NAME = "govportal.audit_log_maintenance";
+    private static final String FUTURE_PARTITION = "pfuture";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final int LOGGED_IDS_LIMIT = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditLogRepository auditLogRepository;
+
+    @Value("${app.audit.partitioning.enabled:false}")
+    private boolean partitioningEnabled;
+
+    @Value("${app.audit.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.audit.retention.months:0}")
+    private int retentionMonths;
+
+    @Value("${app.audit.retention.delete-chunk-size:5000}")
+    private int deleteChunkSize;
+
+    @Value("${app.audit.retention.delete-pause-ms:100}")
+    private long deletePauseMs;
+
+    public AuditRetentionServiceImpl(JdbcTemplate jdbcTemplate, AuditLogRepository auditLogRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditLogRepository = auditLogRepository;
+    }
+
+    /**
+     * Runs once at startup so the current month always has a partition
+     * before the first audit event is written.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (partitioningEnabled) {
+            runMaintenance();
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "${app.audit.retention.cron:0 30 2 * * *}")
+    public void runMaintenance() {
+        if (!partitioningEnabled && retentionMonths <= 0) {
+            return;
+        }
+        // GET_LOCK is tied to the connection, so everything runs on the one that took it.
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            JdbcTemplate locked = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            Integer acquired = locked.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class, LOCK_NAME);
+            if (acquired == null || acquired != 1) {
+                logger.info("Audit log maintenance is already running on another node");
+                return null;
+            }
+            try {
+                if (partitioningEnabled) {
+                    maintainPartitions(locked);
+                } else {
+                    purgeInChunks();
+                }
+            } catch (RuntimeException e) {
+                logger.error("Audit log maintenance failed: {}", e.getMessage(), e);
+            } finally {
+                locked.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, LOCK_NAME);
+            }
+            return null;
+        });
+    }
+
+    private void maintainPartitions(JdbcTemplate jdbc) {
+        YearMonth lastNeeded = YearMonth.now().plusMonths(monthsAhead);
+        List<String> partitions = partitionNames(jdbc);
+
+        if (partitions.isEmpty()) {
+            if (!convertToPartitioned(jdbc, lastNeeded)) {
+                if (retentionMonths > 0) {
+                    purgeInChunks();
+                }
+                return;
+            }
+            partitions = partitionNames(jdbc);
+        }
+
+        // Split new months off pfuture, oldest first; cheap while pfuture is empty.
+        YearMonth next = partitions.stream()
+                .filter(name -> !FUTURE_PARTITION.equals(name))
+                .map(name -> YearMonth.parse(name, PARTITION_NAME).plusMonths(1))
+                .max(YearMonth::compareTo)
+                .orElse(YearMonth.now());
+        for (YearMonth month = next; !month.isAfter(lastNeeded); month = month.plusMonths(1)) {
+            jdbc.execute("ALTER TABLE audit_log REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO ("
+                    + partitionClause(month) + ", PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+            logger.info("Added audit_log partition {}", month.format(PARTITION_NAME));
+        }
+
+        if (retentionMonths > 0) {
+            YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+            for (String name : partitions) {
+                if (!FUTURE_PARTITION.equals(name) && YearMonth.parse(name, PARTITION_NAME).isBefore(oldestKept)) {
+                    jdbc.execute("ALTER TABLE audit_log DROP PARTITION " + name);
+                    logger.info("Dropped expired audit_log partition {}", name);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return false when the table was left as it is because some rows have
+     *         no timestamp
+     */
+    private boolean convertToPartitioned(JdbcTemplate jdbc, YearMonth lastNeeded) {
+        List<Long> untimed = jdbc.queryForList(
+                "SELECT id FROM audit_log WHERE `timestamp` IS NULL ORDER BY id LIMIT ?",
+                Long.class, LOGGED_IDS_LIMIT + 1);
+        if (!untimed.isEmpty()) {
+            Long total = jdbc.queryForObject("SELECT COUNT(*) FROM audit_log WHERE `timestamp` IS NULL", Long.class);
+            logger.error("Not partitioning audit_log: {} entries have no timestamp and the partition key cannot be NULL. "
+                    + "Set their timestamps by hand (ids{}: {}), the conversion runs again on the next maintenance",
+                    total, total > LOGGED_IDS_LIMIT ? ", first " + LOGGED_IDS_LIMIT : "",
+                    untimed.subList(0, Math.min(untimed.size(), LOGGED_IDS_LIMIT)));
+            return false;
+        }
+
+        logger.info("Converting audit_log to monthly partitions");
+
+        List<String> foreignKeys = jdbc.queryForList(
+                "SELECT CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS " +
+                "WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_log'", String.class);
+        for (String foreignKey : foreignKeys) {
+            jdbc.execute("ALTER TABLE audit_log DROP FOREIGN KEY `" + foreignKey + "`");
+        }
+
+        Integer primaryKeyColumns = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.KEY_COLUMN_USAGE " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_log' AND CONSTRAINT_NAME = 'PRIMARY'",
+                Integer.class);
+        if (primaryKeyColumns == null || primaryKeyColumns < 2) {
+            jdbc.execute("ALTER TABLE audit_log MODIFY `timestamp` DATETIME(6) NOT NULL, " +
+                    "DROP PRIMARY KEY, ADD PRIMARY KEY (id, `timestamp`)");
+        }
+
+        LocalDateTime oldest = jdbc.queryForObject("SELECT MIN(`timestamp`) FROM audit_log", LocalDateTime.class);
+        YearMonth first = oldest != null ? YearMonth.from(oldest) : YearMonth.now();
+        if (first.isAfter(YearMonth.now())) {
+            first = YearMonth.now();
+        }
+
+        List<String> clauses = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(lastNeeded); month = month.plusMonths(1)) {
+            clauses.add(partitionClause(month));
+        }
+        clauses.add("PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+        jdbc.execute("ALTER TABLE audit_log PARTITION BY RANGE COLUMNS(`timestamp`) ("
+                + String.join(", ", clauses) + ")");
+        logger.info("audit_log is now partitioned by month from {} to {}", first, lastNeeded);
+        return true;
+    }
+
+    private List<String> partitionNames(JdbcTemplate jdbc) {
+        return jdbc.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_log' AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION", String.class);
+    }
+
+    // The partition of a month holds everything before the first day of the next one.
+    private String partitionClause(YearMonth month) {
+        LocalDate upperBound = month.plusMonths(1).atDay(1);
+        return "PARTITION " + month.format(PARTITION_NAME) + " VALUES LESS THAN ('" + upperBound + "')";
+    }
+
+    private void purgeInChunks() {
+        LocalDateTime cutoff = YearMonth.now().minusMonths(retentionMonths).atDay(1).atStartOfDay();
+        long total = 0;
+        int deleted;
+        do {
+            deleted = auditLogRepository.deleteOlderThan(cutoff, deleteChunkSize);
+            total += deleted;
+            if (deleted == deleteChunkSize && deletePauseMs > 0) {
+                try {
+                    Thread.sleep(deletePauseMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } while (deleted == deleteChunkSize);
+        if (total > 0) {
+            logger.info("Purged {} audit log entries older than {}", total, cutoff);
+        }
+    }
+}
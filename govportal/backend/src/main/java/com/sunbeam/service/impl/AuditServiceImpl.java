@@ -1,6 +1,8 @@
 package com.sunbeam.service.impl;
 
 import com.sunbeam.dto.response.AuditLogResponse;
+import com.sunbeam.dto.response.AuditWriterStatsResponse;
+import com.sunbeam.dto.response.CursorPage;
 import com.sunbeam.model.AuditLog;
 import com.sunbeam.model.User;
 import com.sunbeam.repository.AuditLogRepository;
@@ -8,12 +10,15 @@ import com.sunbeam.repository.DocumentApplicationRepository;
 import com.sunbeam.repository.UserRepository;
 import com.sunbeam.security.SecurityUtils;
 import com.sunbeam.service.AuditService;
+import com.sunbeam.util.CursorCodec;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +29,9 @@ public class AuditServiceImpl implements AuditService {
     private final DocumentApplicationRepository documentRepository;
     private final SecurityUtils securityUtils;
     private final ModelMapper modelMapper;
+    private final AuditLogWriter auditLogWriter;
+
+    private static final int MAX_PAGE_SIZE = 200;
 
     
 
@@ -44,35 +52,48 @@ public class AuditServiceImpl implements AuditService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    public CursorPage<AuditLogResponse> searchAuditLogs(Long userId, AuditLog.ActionType actionType,
+                                                       LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        CursorCodec.Cursor after = CursorCodec.decode(cursor);
+
+        List<AuditLog> rows = auditLogRepository.findKeysetPage(userId, actionType, from, to,
+                after != null ? after.timestamp() : null,
+                after != null ? after.id() : null,
+                PageRequest.of(0, pageSize + 1));
+
+        return CursorPage.of(rows, pageSize,
+                log -> modelMapper.map(log, AuditLogResponse.class),
+                log -> CursorCodec.encode(log.getTimestamp(), log.getId()));
+    }
+
+    // Only the user id is needed, so no user row is loaded here.
+    @Override
     public void logActivity(String action, String details) {
         User currentUser = securityUtils.getCurrentUser();
-        
-        AuditLog log = AuditLog.builder()
-                .user(currentUser)
-                .action(action)
-                .details(details)
-                .timestamp(LocalDateTime.now())
-                .build();
-        
-        auditLogRepository.save(log);
+
+        auditLogWriter.write(new AuditLogWriter.AuditEvent(
+                currentUser.getId(), action, details, LocalDateTime.now(), AuditLog.ActionType.fromAction(action)));
     }
 
     @Override
-    @Transactional
     public void logDocumentStatusChange(Long documentId, String action, String remarks) {
         User currentUser = securityUtils.getCurrentUser();
-        
-        AuditLog log = AuditLog.builder()
-                .user(currentUser)
-                .action("DOCUMENT_" + action)
-                .details(String.format(
+
+        auditLogWriter.write(new AuditLogWriter.AuditEvent(
+                currentUser.getId(),
+                "DOCUMENT_" + action,
+                String.format(
                     "Document ID: %d | Action: %s | Remarks: %s", 
                     documentId, action, remarks
-                ))
-                .timestamp(LocalDateTime.now())
-                .build();
-        
-        auditLogRepository.save(log);
+                ),
+                LocalDateTime.now(),
+                AuditLog.ActionType.fromAction("DOCUMENT_" + action)));
+    }
+
+    @Override
+    public AuditWriterStatsResponse getWriterStats() {
+        return auditLogWriter.getStats();
     }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import com.sunbeam.model.*;
 import com.sunbeam.repository.TokenRepository;
 import com.sunbeam.repository.UserRepository;
 import com.sunbeam.security.JwtUtil;
+import com.sunbeam.security.PrincipalCache;
 import com.sunbeam.service.AuthService;
 import com.sunbeam.service.EmailService;
 import com.sunbeam.service.TokenService;
@@ -41,6 +42,7 @@ public class AuthServiceImpl implements AuthService {
     private final EmailService emailService;
     private final TokenService tokenService;
     private final TokenRepository tokenRepository;
+    private final PrincipalCache principalCache;
     private final Logger logger = LoggerFactory.getLogger(AuthServiceImpl.class);
 
     @Override
@@ -127,7 +129,9 @@ public class AuthServiceImpl implements AuthService {
         
         User user = resetToken.getUser();
         user.setPassword(passwordEncoder.encode(newPassword));
+        user.setTokenEpoch(user.getTokenEpoch() + 1);
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
         tokenRepository.delete(resetToken);
         logger.info("Password reset completed for user: {}", user.getEmail());
     }
@@ -144,6 +148,7 @@ public class AuthServiceImpl implements AuthService {
         User user = verificationToken.getUser();
         user.setEnabled(true);
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
         tokenRepository.delete(verificationToken);
         
         logger.info("Email verified successfully for user: {}", user.getEmail());
@@ -0,0 +1,302 @@
+package com.sunbeam.service.impl;
+
+import com.sunbeam.exception.ResourceNotFoundException;
+import com.sunbeam.exception.WorkflowException;
+import com.sunbeam.model.CertificateJob;
+import com.sunbeam.model.DocumentApplication;
+import com.sunbeam.repository.CertificateJobRepository;
+import com.sunbeam.repository.DocumentApplicationRepository;
+import com.sunbeam.service.CertificateJobService;
+import com.sunbeam.service.CertificateStorageService;
+import com.sunbeam.service.EmailService;
+import com.sunbeam.service.PdfGeneratorService;
+import com.sunbeam.service.WorkflowCounterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Database-backed certificate queue. A scheduled poller claims due jobs and
+ * hands them to the certificate executor; each job renders the PDF, uploads
+ * it and moves the application to CERTIFICATE_READY. Failures are retried
+ * with exponential backoff until max-attempts is reached.
+ *
+ * A worker only finishes a job while it still owns it: the job must still be
+ * RUNNING with the attempt number the worker claimed. A worker whose lease
+ * expired and whose job was claimed again therefore discards its result
+ * instead of completing the job twice or resetting a finished one.
+ *
+ * The application must also still be APPROVED at UNDER_CERTIFICATE_GENERATION
+ * when the job completes; this is checked with the row locked. Otherwise the
+ * job is finished without moving the desk or mailing the applicant, and the
+ * uploaded PDF is removed.
+ *
+ * Workers run without a logged-in user, so nothing in here may rely on the
+ * security context (e.g. AuditService).
+ */
+@Service
+public class CertificateJobServiceImpl implements CertificateJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CertificateJobServiceImpl.class);
+
+    private final CertificateJobRepository jobRepository;
+    private final DocumentApplicationRepository documentRepository;
+    private final PdfGeneratorService pdfService;
+    private final CertificateStorageService certificateStorageService;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor certificateExecutor;
+    private final WorkflowCounterService workflowCounterService;
+
+    @Value("${app.certificate.worker.batch-size:10}")
+    private int batchSize;
+
+    @Value("${app.certificate.worker.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${app.certificate.worker.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.certificate.worker.retry-base-delay-ms:30000}")
+    private long retryBaseDelayMs;
+
+    @Value("${app.certificate.worker.retry-max-delay-ms:1800000}")
+    private long retryMaxDelayMs;
+
+    public CertificateJobServiceImpl(CertificateJobRepository jobRepository,
+                                     DocumentApplicationRepository documentRepository,
+                                     PdfGeneratorService pdfService,
+                                     CertificateStorageService certificateStorageService,
+                                     EmailService emailService,
+                                     TransactionTemplate transactionTemplate,
+                                     @Qualifier("certificateExecutor") ThreadPoolTaskExecutor certificateExecutor,
+                                     WorkflowCounterService workflowCounterService) {
+        this.jobRepository = jobRepository;
+        this.documentRepository = documentRepository;
+        this.pdfService = pdfService;
+        this.certificateStorageService = certificateStorageService;
+        this.emailService = emailService;
+        this.transactionTemplate = transactionTemplate;
+        this.certificateExecutor = certificateExecutor;
+        this.workflowCounterService = workflowCounterService;
+    }
+
+    private record Claim(Long jobId, int attempt) {
+    }
+
+    @Override
+    public void enqueue(Long applicationId) {
+        LocalDateTime now = LocalDateTime.now();
+        CertificateJob job = jobRepository.findByApplicationId(applicationId)
+                .orElseGet(() -> CertificateJob.builder()
+                        .applicationId(applicationId)
+                        .createdAt(now)
+                        .build());
+        job.setStatus(CertificateJob.Status.PENDING);
+        job.setAttempts(0);
+        job.setNextAttemptAt(now);
+        job.setLeaseExpiresAt(null);
+        job.setLastError(null);
+        job.setCompletedAt(null);
+        jobRepository.save(job);
+    }
+
+    /**
+     * Claims as many due jobs as the executor can take right now, so claimed
+     * jobs never sit in a local queue while their lease runs out.
+     */
+    @Scheduled(fixedDelayString = "${app.certificate.worker.poll-interval-ms:2000}")
+    public void dispatchDueJobs() {
+        int freeSlots = certificateExecutor.getMaxPoolSize() - certificateExecutor.getActiveCount()
+                + certificateExecutor.getThreadPoolExecutor().getQueue().remainingCapacity();
+        int limit = Math.min(batchSize, freeSlots);
+        if (limit <= 0) {
+            return;
+        }
+
+        List<Claim> claims = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<CertificateJob> jobs = jobRepository.lockDueJobs(now, limit);
+            for (CertificateJob job : jobs) {
+                job.setStatus(CertificateJob.Status.RUNNING);
+                job.setAttempts(job.getAttempts() + 1);
+                job.setLeaseExpiresAt(now.plus(Duration.ofMillis(leaseMs)));
+            }
+            return jobs.stream().map(job -> new Claim(job.getId(), job.getAttempts())).toList();
+        });
+
+        for (Claim claim : claims) {
+            try {
+                certificateExecutor.execute(() -> process(claim));
+            } catch (TaskRejectedException e) {
+                // The lease expires and the job is claimed again on a later poll.
+                logger.warn("Certificate executor is full, job {} will be retried after its lease expires", claim.jobId());
+            }
+        }
+    }
+
+    private void process(Claim claim) {
+        Long jobId = claim.jobId();
+        CertificateJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || !owns(job, claim)) {
+            return;
+        }
+        Long applicationId = job.getApplicationId();
+
+        try {
+            DocumentApplication application = documentRepository.findByIdWithApplicant(applicationId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Application not found with ID: " + applicationId));
+            if (!awaitsCertificate(application)) {
+                skip(claim, application);
+                return;
+            }
+
+            byte[] pdf = pdfService.generateCertificate(application);
+            String certificateKey = certificateStorageService.storeCertificate(applicationId, pdf);
+
+            // The certificate key is the same for every attempt, so a discarded
+            // upload only overwrote the object with an equivalent PDF.
+            Outcome outcome = transactionTemplate.execute(status -> {
+                // Locked first, so a worker that lost the job cannot finish it concurrently.
+                CertificateJob done = jobRepository.lockById(jobId).orElse(null);
+                if (done == null || !owns(done, claim)) {
+                    return Outcome.TAKEN_OVER;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                // Locked too: the application may have left UNDER_CERTIFICATE_GENERATION while the PDF was rendered.
+                DocumentApplication certified = documentRepository.lockById(applicationId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Application not found with ID: " + applicationId));
+                if (!awaitsCertificate(certified)) {
+                    finish(done, now, skipReason(certified));
+                    // The upload went to the application's usual key; keep it if the row already points there.
+                    return certificateKey.equals(certified.getCertificateKey()) ? Outcome.SKIPPED_IN_USE : Outcome.SKIPPED;
+                }
+                certified.setCertificateKey(certificateKey);
+                certified.setCertificateGeneratedAt(now);
+                String fromDesk = certified.getCurrentDesk();
+                certified.setCurrentDesk("CERTIFICATE_READY");
+                workflowCounterService.recordTransition(certified, fromDesk, certified.getStatus());
+                finish(done, now, null);
+
+                // Queued in the same transaction, so the mail goes out exactly when the certificate is ready.
+                emailService.sendApplicationStatusUpdate(application.getApplicant().getEmail(),
+                        "GovPortal Application Status Update",
+                        "Your application has been approved. You can now download your certificate from your account.");
+                return Outcome.COMPLETED;
+            });
+            switch (outcome) {
+                case COMPLETED -> logger.info("Certificate generated for application {} (attempt {})",
+                        applicationId, claim.attempt());
+                case TAKEN_OVER -> logger.warn("Certificate job {} was taken over after its lease expired, discarding attempt {}",
+                        jobId, claim.attempt());
+                case SKIPPED, SKIPPED_IN_USE -> {
+                    logger.warn("Certificate job {}: application {} left certificate generation while rendering, discarding the certificate",
+                            jobId, applicationId);
+                    if (outcome == Outcome.SKIPPED) {
+                        certificateStorageService.deleteCertificates(List.of(certificateKey));
+                    }
+                }
+            }
+
+        } catch (Exception e) {
+            recordFailure(claim, e);
+        }
+    }
+
+    private enum Outcome {
+        COMPLETED, TAKEN_OVER, SKIPPED, SKIPPED_IN_USE
+    }
+
+    // Only an approved application waiting at UNDER_CERTIFICATE_GENERATION gets a certificate and the approval mail.
+    private static boolean awaitsCertificate(DocumentApplication application) {
+        return application.getStatus() == DocumentApplication.ApplicationStatus.APPROVED
+                && "UNDER_CERTIFICATE_GENERATION".equals(application.getCurrentDesk());
+    }
+
+    private static String skipReason(DocumentApplication application) {
+        return "Skipped: application is " + application.getStatus() + " at " + application.getCurrentDesk();
+    }
+
+    private void skip(Claim claim, DocumentApplication application) {
+        transactionTemplate.executeWithoutResult(status -> jobRepository.lockById(claim.jobId()).ifPresent(job -> {
+            if (owns(job, claim)) {
+                finish(job, LocalDateTime.now(), skipReason(application));
+                logger.warn("Certificate job {}: application {} is {} at {}, nothing to generate",
+                        job.getId(), application.getId(), application.getStatus(), application.getCurrentDesk());
+            }
+        }));
+    }
+
+    // A skipped job is finished as well, with the reason kept in last_error.
+    private static void finish(CertificateJob job, LocalDateTime now, String note) {
+        job.setStatus(CertificateJob.Status.DONE);
+        job.setLeaseExpiresAt(null);
+        job.setLastError(note);
+        job.setCompletedAt(now);
+    }
+
+    private void recordFailure(Claim claim, Exception e) {
+        Long jobId = claim.jobId();
+        transactionTemplate.executeWithoutResult(status -> jobRepository.lockById(jobId).ifPresent(job -> {
+            if (!owns(job, claim)) {
+                logger.warn("Certificate job {} attempt {} failed after the job was taken over, ignoring: {}",
+                        jobId, claim.attempt(), e.getMessage());
+                return;
+            }
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            job.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+            job.setLeaseExpiresAt(null);
+
+            if (job.getAttempts() >= maxAttempts) {
+                job.setStatus(CertificateJob.Status.FAILED);
+                logger.error("Certificate job {} for application {} failed permanently after {} attempts",
+                        jobId, job.getApplicationId(), job.getAttempts(), e);
+            } else {
+                long delayMs = Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(job.getAttempts() - 1, 20));
+                job.setStatus(CertificateJob.Status.PENDING);
+                job.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(delayMs)));
+                logger.warn("Certificate job {} for application {} failed (attempt {}), retrying in {} ms: {}",
+                        jobId, job.getApplicationId(), job.getAttempts(), delayMs, e.getMessage());
+            }
+        }));
+    }
+
+    private static boolean owns(CertificateJob job, Claim claim) {
+        return job.getStatus() == CertificateJob.Status.RUNNING && job.getAttempts() == claim.attempt();
+    }
+
+    @Override
+    public Page<CertificateJob> getFailedJobs(Pageable pageable) {
+        return jobRepository.findByStatusOrderByIdDesc(CertificateJob.Status.FAILED, pageable);
+    }
+
+    @Override
+    public CertificateJob requeue(Long applicationId) {
+        return transactionTemplate.execute(status -> {
+            CertificateJob job = jobRepository.findByApplicationId(applicationId)
+                    .flatMap(found -> jobRepository.lockById(found.getId()))
+                    .orElseThrow(() -> new ResourceNotFoundException("No certificate job for application " + applicationId));
+            if (job.getStatus() != CertificateJob.Status.FAILED) {
+                throw new WorkflowException("Only failed certificate jobs can be requeued, this one is " + job.getStatus());
+            }
+            job.setStatus(CertificateJob.Status.PENDING);
+            job.setAttempts(0);
+            job.setNextAttemptAt(LocalDateTime.now());
+            job.setLastError(null);
+            logger.info("Certificate job {} for application {} requeued", job.getId(), applicationId);
+            return job;
+        });
+    }
+}
@@ -0,0 +1,266 @@
+package com.sunbeam.service.impl;
+
+import com.sunbeam.dto.response.CertificateRegenerationStatusResponse;
+import com.sunbeam.model.DocumentApplication;
+import com.sunbeam.model.DocumentApplication.ApplicationStatus;
+import com.sunbeam.model.DocumentApplication.DocumentType;
+import com.sunbeam.repository.DocumentApplicationRepository;
+import com.sunbeam.service.CertificateRegenerationService;
+import com.sunbeam.service.CertificateStorageService;
+import com.sunbeam.service.PdfGeneratorService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Admin-triggered bulk re-rendering of certificates, e.g. after a template
+ * change. One coordinator thread walks approved applications in keyset
+ * chunks; each chunk is rendered and uploaded on a dedicated ForkJoinPool
+ * whose parallelism is capped below the core count, so request threads and
+ * the regular certificate workers keep CPU to themselves. Keys and timestamps
+ * are written back with one JDBC batch per chunk.
+ *
+ * Every approved application with a certificate in S3 is re-rendered,
+ * including ones certified before the CERTIFICATE_READY desk existed. Ones
+ * still waiting for their first certificate belong to CertificateJobService,
+ * and ones whose PDF is still in the legacy column wait for
+ * CertificateBlobMigrationRunner.
+ *
+ * Each new PDF goes to a key of its own ({id}-{version}.pdf), so the live
+ * certificate is never overwritten. The write-back switches certificate_key
+ * only if the row has not changed since the chunk was read, bumping the
+ * version; the object left unreferenced (the old one, or the new one if the
+ * row changed) is deleted. Neither status nor desk changes, so there is no
+ * workflow transition to count or publish.
+ */
+@Service
+public class CertificateRegenerationServiceImpl implements CertificateRegenerationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CertificateRegenerationServiceImpl.class);
+
+    private final DocumentApplicationRepository documentRepository;
+    private final PdfGeneratorService pdfService;
+    private final CertificateStorageService certificateStorageService;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ForkJoinPool renderPool;
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "CertificateRegeneration");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicReference<Run> currentRun = new AtomicReference<>();
+
+    @Value("${app.certificate.regeneration.chunk-size:200}")
+    private int chunkSize;
+
+    public CertificateRegenerationServiceImpl(DocumentApplicationRepository documentRepository,
+                                              PdfGeneratorService pdfService,
+                                              CertificateStorageService certificateStorageService,
+                                              JdbcTemplate jdbcTemplate,
+                                              @Value("${app.certificate.regeneration.parallelism:0}") int parallelism) {
+        this.documentRepository = documentRepository;
+        this.pdfService = pdfService;
+        this.certificateStorageService = certificateStorageService;
+        this.jdbcTemplate = jdbcTemplate;
+        // 0 = half of the cores, leaving the rest for interactive traffic
+        int threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.renderPool = new ForkJoinPool(threads);
+    }
+
+    @Override
+    public synchronized CertificateRegenerationStatusResponse start(String documentType) {
+        Run previous = currentRun.get();
+        if (previous != null && previous.state == State.RUNNING) {
+            throw new IllegalStateException("A certificate regeneration is already running.");
+        }
+
+        DocumentType type = documentType != null ? DocumentType.fromString(documentType) : null;
+        Run run = new Run(type, documentRepository.countCertified(ApplicationStatus.APPROVED, type));
+        currentRun.set(run);
+        coordinator.execute(() -> execute(run));
+
+        logger.info("Certificate regeneration started for {} application(s), type {}", run.total, type != null ? type : "ALL");
+        return toResponse(run);
+    }
+
+    @Override
+    public CertificateRegenerationStatusResponse getStatus() {
+        Run run = currentRun.get();
+        if (run == null) {
+            return CertificateRegenerationStatusResponse.builder().state("IDLE").build();
+        }
+        return toResponse(run);
+    }
+
+    @Override
+    public CertificateRegenerationStatusResponse cancel() {
+        Run run = currentRun.get();
+        if (run != null) {
+            run.cancelRequested = true;
+        }
+        return getStatus();
+    }
+
+    private void execute(Run run) {
+        try {
+            long lastId = 0;
+            while (!run.cancelRequested) {
+                List<DocumentApplication> chunk = documentRepository.findCertifiedChunkAfter(
+                        ApplicationStatus.APPROVED, run.documentType, lastId, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                List<Rendered> updates = renderPool.submit(() -> chunk.parallelStream()
+                                .map(application -> render(run, application))
+                                .filter(Objects::nonNull)
+                                .toList())
+                        .get();
+                writeBack(updates);
+
+                lastId = chunk.get(chunk.size() - 1).getId();
+                run.lastApplicationId = lastId;
+            }
+            run.finish(run.cancelRequested ? State.CANCELLED : State.COMPLETED, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.finish(State.CANCELLED, "Interrupted");
+        } catch (ExecutionException | RuntimeException e) {
+            logger.error("Certificate regeneration aborted: {}", e.getMessage(), e);
+            run.finish(State.FAILED, e.getMessage());
+        }
+        logger.info("Certificate regeneration {}: {} processed, {} failed", run.state, run.processed.get(), run.failed.get());
+    }
+
+    private record Rendered(Long applicationId, long version, String previousKey, String certificateKey,
+                            LocalDateTime generatedAt) {
+    }
+
+    /**
+     * Renders and uploads one certificate under a new key. Returns what to
+     * write back, or null if this application failed; failures are counted,
+     * not fatal.
+     */
+    private Rendered render(Run run, DocumentApplication application) {
+        try {
+            byte[] pdf = pdfService.generateCertificate(application);
+            // The key carries the version the write-back will set, so it is new for every regeneration.
+            String certificateKey = certificateStorageService.storeCertificate(
+                    CertificateStorageService.certificateKey(application.getId(), application.getVersion() + 1), pdf);
+            run.processed.incrementAndGet();
+            return new Rendered(application.getId(), application.getVersion(), application.getCertificateKey(),
+                    certificateKey, LocalDateTime.now());
+        } catch (Exception e) {
+            run.failed.incrementAndGet();
+            logger.warn("Failed to regenerate certificate for application {}: {}", application.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeBack(List<Rendered> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE document_applications SET certificate_key = ?, certificate_generated_at = ?, " +
+                "version = version + 1 WHERE id = ? AND version = ? AND status = 'APPROVED' AND certificate_key IS NOT NULL",
+                updates.stream()
+                        .map(update -> new Object[]{update.certificateKey(), Timestamp.valueOf(update.generatedAt()),
+                                update.applicationId(), update.version()})
+                        .toList());
+
+        List<String> unreferenced = new ArrayList<>();
+        long skipped = 0;
+        for (int i = 0; i < counts.length; i++) {
+            Rendered update = updates.get(i);
+            if (counts[i] == 0) {
+                skipped++;
+                unreferenced.add(update.certificateKey());
+            } else if (counts[i] > 0 && !update.certificateKey().equals(update.previousKey())) {
+                unreferenced.add(update.previousKey());
+            }
+            // A driver that reports no count leaves both objects in place.
+        }
+        certificateStorageService.deleteCertificates(unreferenced);
+        if (skipped > 0) {
+            logger.info("{} application(s) changed while their certificate was re-rendered, left as they were", skipped);
+        }
+    }
+
+    private CertificateRegenerationStatusResponse toResponse(Run run) {
+        LocalDateTime end = run.finishedAt != null ? run.finishedAt : LocalDateTime.now();
+        long elapsedMs = Math.max(1, Duration.between(run.startedAt, end).toMillis());
+        return CertificateRegenerationStatusResponse.builder()
+                .state(run.state.name())
+                .documentType(run.documentType != null ? run.documentType.name() : null)
+                .total(run.total)
+                .processed(run.processed.get())
+                .failed(run.failed.get())
+                .lastApplicationId(run.lastApplicationId)
+                .certificatesPerSecond(run.processed.get() * 1000.0 / elapsedMs)
+                .startedAt(run.startedAt)
+                .finishedAt(run.finishedAt)
+                .error(run.error)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        Run run = currentRun.get();
+        if (run != null) {
+            run.cancelRequested = true;
+        }
+        coordinator.shutdownNow();
+        renderPool.shutdownNow();
+    }
+
+    private enum State {
+        RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    /**
+     * Progress of one regeneration; written by the job, read by status requests.
+     */
+    private static final class Run {
+        private final DocumentType documentType;
+        private final long total;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile State state = State.RUNNING;
+        private volatile Long lastApplicationId;
+        private volatile boolean cancelRequested;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Run(DocumentType documentType, long total) {
+            this.documentType = documentType;
+            this.total = total;
+        }
+
+        private void finish(State finalState, String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.state = finalState;
+        }
+    }
+}
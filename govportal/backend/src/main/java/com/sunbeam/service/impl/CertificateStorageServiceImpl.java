@@ -0,0 +1,108 @@
+package com.sunbeam.service.impl;
+
+import com.sunbeam.service.CertificateStorageService;
+import com.sunbeam.service.StorageService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CertificateStorageServiceImpl implements CertificateStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CertificateStorageServiceImpl.class);
+
+    private final StorageService storageService;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Checked once; the column only goes away with a schema change and a restart.
+    private volatile Boolean legacyColumnExists;
+
+    @Override
+    public String storeCertificate(Long applicationId, byte[] pdf) {
+        return storeCertificate(CertificateStorageService.certificateKey(applicationId), pdf);
+    }
+
+    @Override
+    public String storeCertificate(String objectKey, byte[] pdf) {
+        storageService.putObject(objectKey, pdf, "application/pdf");
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        logger.warn("Transaction rolled back, removing certificate {}", objectKey);
+                        storageService.deleteObjects(List.of(objectKey));
+                    }
+                }
+            });
+        }
+        return objectKey;
+    }
+
+    @Override
+    public void deleteCertificates(Collection<String> objectKeys) {
+        if (objectKeys.isEmpty()) {
+            return;
+        }
+        try {
+            storageService.deleteObjects(objectKeys);
+        } catch (RuntimeException e) {
+            logger.warn("Could not remove certificate(s) {}: {}", objectKeys, e.getMessage());
+        }
+    }
+
+    @Override
+    public byte[] readLegacyCertificate(Long applicationId) {
+        if (!legacyColumnExists()) {
+            return null;
+        }
+        List<byte[]> pdf = jdbcTemplate.query(
+                "SELECT certificate_pdf FROM document_applications WHERE id = ? AND certificate_pdf IS NOT NULL",
+                (rs, rowNum) -> rs.getBytes(1), applicationId);
+        return pdf.isEmpty() ? null : pdf.get(0);
+    }
+
+    @Override
+    public String migrateLegacyCertificate(Long applicationId) {
+        byte[] pdf = readLegacyCertificate(applicationId);
+        if (pdf == null) {
+            return null;
+        }
+        // Idempotent: a concurrent copy of the same row writes the same object and key.
+        String objectKey = CertificateStorageService.certificateKey(applicationId);
+        storageService.putObject(objectKey, pdf, "application/pdf");
+        // Before CERTIFICATE_READY existed, certified applications stayed at UNDER_CERTIFICATE_GENERATION.
+        jdbcTemplate.update(
+                "UPDATE document_applications SET certificate_key = ?, certificate_pdf = NULL, " +
+                "certificate_generated_at = COALESCE(certificate_generated_at, resolved_date, last_updated_date, NOW()), " +
+                "version = version + 1, " +
+                "current_desk = CASE WHEN status = 'APPROVED' AND current_desk = 'UNDER_CERTIFICATE_GENERATION' " +
+                "THEN 'CERTIFICATE_READY' ELSE current_desk END " +
+                "WHERE id = ?",
+                objectKey, applicationId);
+        return objectKey;
+    }
+
+    private boolean legacyColumnExists() {
+        Boolean exists = legacyColumnExists;
+        if (exists == null) {
+            Integer count = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.columns " +
+                    "WHERE table_schema = DATABASE() AND table_name = 'document_applications' " +
+                    "AND column_name = 'certificate_pdf'",
+                    Integer.class);
+            exists = count != null && count > 0;
+            legacyColumnExists = exists;
+        }
+        return exists;
+    }
+}
@@ -0,0 +1,80 @@
+package com.sunbeam.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.itextpdf.kernel.geom.Rectangle;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Compiled certificate layout for one document type: the pre-rendered static
+ * page (header and signature block), the area left free for the details table,
+ * and the form-data fields that go into that table, in order.
+ *
+ * Instances are immutable and shared between rendering threads.
+ */
+public final class CertificateTemplate<T> {
+
+    private final byte[] basePdf;
+    private final Rectangle tableArea;
+    private final ObjectReader formReader;
+    private final List<Field<T>> fields;
+
+    private CertificateTemplate(byte[] basePdf, Rectangle tableArea, ObjectReader formReader, List<Field<T>> fields) {
+        this.basePdf = basePdf;
+        this.tableArea = tableArea;
+        this.formReader = formReader;
+        this.fields = List.copyOf(fields);
+    }
+
+    public byte[] getBasePdf() {
+        return basePdf;
+    }
+
+    public Rectangle getTableArea() {
+        return tableArea.clone();
+    }
+
+    /**
+     * Parses the application's form data and returns the type-specific rows
+     * as label/value pairs.
+     */
+    public List<String[]> resolveFields(String formDataJson) throws IOException {
+        List<String[]> rows = new ArrayList<>(fields.size());
+        if (formDataJson == null || formDataJson.isEmpty()) {
+            return rows;
+        }
+        T formData = formReader.readValue(formDataJson);
+        for (Field<T> field : fields) {
+            rows.add(new String[]{field.label(), field.value().apply(formData)});
+        }
+        return rows;
+    }
+
+    public static <T> Builder<T> builder(ObjectReader formReader) {
+        return new Builder<>(formReader);
+    }
+
+    private record Field<T>(String label, Function<T, String> value) {
+    }
+
+    public static final class Builder<T> {
+        private final ObjectReader formReader;
+        private final List<Field<T>> fields = new ArrayList<>();
+
+        private Builder(ObjectReader formReader) {
+            this.formReader = formReader;
+        }
+
+        public Builder<T> field(String label, Function<T, String> value) {
+            fields.add(new Field<>(label, value));
+            return this;
+        }
+
+        public CertificateTemplate<T> build(byte[] basePdf, Rectangle tableArea) {
+            return new CertificateTemplate<>(basePdf, tableArea, formReader, fields);
+        }
+    }
+}
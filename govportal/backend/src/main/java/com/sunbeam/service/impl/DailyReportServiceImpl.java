@@ -0,0 +1,242 @@
+package com.sunbeam.service.impl;
+
+import com.sunbeam.dto.DailyReportData;
+import com.sunbeam.dto.FileStream;
+import com.sunbeam.exception.ResourceNotFoundException;
+import com.sunbeam.model.DailyReport;
+import com.sunbeam.model.DocumentApplication.DocumentType;
+import com.sunbeam.repository.DailyReportRepository;
+import com.sunbeam.service.DailyReportService;
+import com.sunbeam.service.PdfGeneratorService;
+import com.sunbeam.service.StorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+public class DailyReportServiceImpl implements DailyReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyReportServiceImpl.class);
+
+    private static final Pattern APPLICATION_ID = Pattern.compile("application (\\d+)");
+    private static final int TYPE_LOOKUP_BATCH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final DailyReportRepository dailyReportRepository;
+    private final PdfGeneratorService pdfService;
+    private final StorageService storageService;
+
+    public DailyReportServiceImpl(JdbcTemplate jdbcTemplate,
+                                  @Qualifier("streamingJdbcTemplate") JdbcTemplate streamingJdbcTemplate,
+                                  DailyReportRepository dailyReportRepository,
+                                  PdfGeneratorService pdfService,
+                                  StorageService storageService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = streamingJdbcTemplate;
+        this.dailyReportRepository = dailyReportRepository;
+        this.pdfService = pdfService;
+        this.storageService = storageService;
+    }
+
+    /**
+     * One streamed pass over the applications touched that day and one over
+     * that day's verifier audit entries. Every row is folded into counters
+     * as it arrives; only the resolution times of resolved applications are
+     * kept, to compute the median.
+     *
+     * "Changes requested" counts the CHANGES_REQUESTED audit events of the
+     * day, not applications whose current status is CHANGES_REQUESTED, so an
+     * application that was resubmitted later the same day still counts.
+     */
+    @Override
+    public DailyReportData aggregate(LocalDate date) {
+        Timestamp from = Timestamp.valueOf(date.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(date.plusDays(1).atStartOfDay());
+
+        Map<String, DailyReportData.TypeCounts> countsByType = new LinkedHashMap<>();
+        for (DocumentType type : DocumentType.values()) {
+            countsByType.put(type.name(), new DailyReportData.TypeCounts());
+        }
+        List<Long> resolutionSeconds = new ArrayList<>();
+
+        streamingJdbcTemplate.query(
+                "SELECT document_type, status, submission_date, resolved_date " +
+                "FROM document_applications " +
+                "WHERE (submission_date >= ? AND submission_date < ?) " +
+                "OR (resolved_date >= ? AND resolved_date < ?)",
+                (RowCallbackHandler) rs -> {
+                    DailyReportData.TypeCounts counts = countsByType.computeIfAbsent(
+                            rs.getString("document_type"), type -> new DailyReportData.TypeCounts());
+                    String status = rs.getString("status");
+                    Timestamp submitted = rs.getTimestamp("submission_date");
+                    Timestamp resolved = rs.getTimestamp("resolved_date");
+
+                    if (within(submitted, from, to)) {
+                        counts.setSubmitted(counts.getSubmitted() + 1);
+                    }
+                    if (within(resolved, from, to) && ("APPROVED".equals(status) || "REJECTED".equals(status))) {
+                        if ("APPROVED".equals(status)) {
+                            counts.setApproved(counts.getApproved() + 1);
+                        } else {
+                            counts.setRejected(counts.getRejected() + 1);
+                        }
+                        if (submitted != null) {
+                            resolutionSeconds.add(Duration.between(submitted.toLocalDateTime(), resolved.toLocalDateTime()).getSeconds());
+                        }
+                    }
+                },
+                from, to, from, to);
+
+        Map<String, DailyReportData.VerifierActivity> throughput = new TreeMap<>();
+        // application id -> CHANGES_REQUESTED events that day
+        Map<Long, Integer> changesRequested = new HashMap<>();
+        streamingJdbcTemplate.query(
+                "SELECT u.email, al.action, al.details FROM audit_log al JOIN `user` u ON u.id = al.user_id " +
+                "WHERE al.timestamp >= ? AND al.timestamp < ? " +
+                "AND al.action IN ('MOVED_TO_DESK_2', 'DOCUMENT_APPROVED', 'DOCUMENT_REJECTED', 'CHANGES_REQUESTED')",
+                (RowCallbackHandler) rs -> {
+                    DailyReportData.VerifierActivity activity = throughput.computeIfAbsent(
+                            rs.getString(1), email -> new DailyReportData.VerifierActivity());
+                    switch (rs.getString(2)) {
+                        case "MOVED_TO_DESK_2" -> activity.setForwarded(activity.getForwarded() + 1);
+                        case "DOCUMENT_APPROVED" -> activity.setApproved(activity.getApproved() + 1);
+                        case "DOCUMENT_REJECTED" -> activity.setRejected(activity.getRejected() + 1);
+                        default -> {
+                            activity.setChangesRequested(activity.getChangesRequested() + 1);
+                            Long applicationId = applicationIdOf(rs.getString(3));
+                            if (applicationId != null) {
+                                changesRequested.merge(applicationId, 1, Integer::sum);
+                            }
+                        }
+                    }
+                },
+                from, to);
+        countChangesRequestedByType(changesRequested, countsByType);
+
+        Map<String, Long> deskBacklog = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT current_desk, COUNT(*) FROM document_applications " +
+                "WHERE current_desk IN ('DESK_1', 'DESK_2', 'UNDER_CERTIFICATE_GENERATION') " +
+                "GROUP BY current_desk ORDER BY current_desk",
+                (RowCallbackHandler) rs -> deskBacklog.put(rs.getString(1), rs.getLong(2)));
+
+        return DailyReportData.builder()
+                .date(date)
+                .countsByType(countsByType)
+                .deskBacklog(deskBacklog)
+                .verifierThroughput(throughput)
+                .resolvedCount(resolutionSeconds.size())
+                .medianTimeToResolution(median(resolutionSeconds))
+                .build();
+    }
+
+    @Override
+    public DailyReport generateAndStore(LocalDate date) throws IOException {
+        byte[] pdf = pdfService.generateDailyReport(aggregate(date));
+        String objectKey = "reports/daily/" + date + ".pdf";
+        storageService.putObject(objectKey, pdf, "application/pdf");
+
+        DailyReport report = dailyReportRepository.findByReportDate(date)
+                .orElseGet(() -> DailyReport.builder().reportDate(date).build());
+        report.setObjectKey(objectKey);
+        report.setSizeBytes(pdf.length);
+        report.setGeneratedAt(LocalDateTime.now());
+        try {
+            return dailyReportRepository.save(report);
+        } catch (DataIntegrityViolationException e) {
+            // Another node stored the same day concurrently; its row points at the same key.
+            logger.info("Daily report for {} was stored concurrently by another node", date);
+            return dailyReportRepository.findByReportDate(date).orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * Builds yesterday's report shortly after midnight.
+     */
+    @Scheduled(cron = "${app.reports.daily.cron:0 15 0 * * *}")
+    public void generatePreviousDay() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        try {
+            generateAndStore(yesterday);
+            logger.info("Daily report for {} generated", yesterday);
+        } catch (Exception e) {
+            logger.error("Failed to generate daily report for {}: {}", yesterday, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<FileStream> openReport(LocalDate date) {
+        DailyReport report = dailyReportRepository.findByReportDate(date)
+                .orElseThrow(() -> new ResourceNotFoundException("No daily report has been generated for " + date));
+
+        return storageService.getObject(report.getObjectKey(), null)
+                .thenApply(object -> FileStream.builder()
+                        .fileName("daily-report-" + date + ".pdf")
+                        .contentType("application/pdf")
+                        .contentLength(object.response().contentLength())
+                        .content(object)
+                        .build());
+    }
+
+    /**
+     * Resolves the document type of every application sent back that day, a
+     * bounded IN list at a time.
+     */
+    private void countChangesRequestedByType(Map<Long, Integer> changesRequested,
+                                             Map<String, DailyReportData.TypeCounts> countsByType) {
+        List<Long> ids = new ArrayList<>(changesRequested.keySet());
+        for (int start = 0; start < ids.size(); start += TYPE_LOOKUP_BATCH) {
+            List<Long> batch = ids.subList(start, Math.min(start + TYPE_LOOKUP_BATCH, ids.size()));
+            String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+            jdbcTemplate.query(
+                    "SELECT id, document_type FROM document_applications WHERE id IN (" + placeholders + ")",
+                    (RowCallbackHandler) rs -> {
+                        DailyReportData.TypeCounts counts = countsByType.computeIfAbsent(
+                                rs.getString(2), type -> new DailyReportData.TypeCounts());
+                        counts.setChangesRequested(counts.getChangesRequested() + changesRequested.get(rs.getLong(1)));
+                    },
+                    batch.toArray());
+        }
+    }
+
+    // Matches the id in "Changes requested for application <id> by ..." audit details.
+    private static Long applicationIdOf(String details) {
+        if (details == null) {
+            return null;
+        }
+        Matcher matcher = APPLICATION_ID.matcher(details);
+        return matcher.find() ? Long.valueOf(matcher.group(1)) : null;
+    }
+
+    private static boolean within(Timestamp value, Timestamp from, Timestamp to) {
+        return value != null && !value.before(from) && value.before(to);
+    }
+
+    private static Duration median(List<Long> seconds) {
+        if (seconds.isEmpty()) {
+            return null;
+        }
+        Collections.sort(seconds);
+        int middle = seconds.size() / 2;
+        long median = seconds.size() % 2 == 1
+                ? seconds.get(middle)
+                : (seconds.get(middle - 1) + seconds.get(middle)) / 2;
+        return Duration.ofSeconds(median);
+    }
+}
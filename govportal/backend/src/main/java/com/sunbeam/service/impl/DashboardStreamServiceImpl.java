@@ -0,0 +1,268 @@
+package com.sunbeam.service.impl;
+
+import com.sunbeam.dto.ApplicationCounts;
+import com.sunbeam.dto.WorkflowTransitionEvent;
+import com.sunbeam.exception.StreamCapacityException;
+import com.sunbeam.service.DashboardStreamService;
+import com.sunbeam.service.WorkflowCounterService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes workflow changes to open verifier and admin dashboards over SSE.
+ *
+ * Committed transitions are appended to a replay ring and offered to every
+ * subscriber's bounded buffer; publishing never blocks on a client. Each
+ * buffer is drained by at most one task on dashboardStreamExecutor, so a
+ * slow client only delays itself. A subscriber whose buffer overflows is
+ * closed; when it reconnects with Last-Event-ID it is replayed from the ring,
+ * or sent a fresh snapshot if it fell too far behind.
+ *
+ * Event ids are "<stream>-<sequence>", where the stream id changes on every
+ * start, so an id issued by another node or a previous run is recognised
+ * and answered with a snapshot. Transitions made on other nodes are not
+ * seen here; the periodic "stats" check against workflow_counters keeps
+ * every node's subscribers current regardless.
+ */
+@Service
+public class DashboardStreamServiceImpl implements DashboardStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStreamServiceImpl.class);
+
+    private static final String STATS_EVENT = "stats";
+    private static final String TRANSITION_EVENT = "transition";
+
+    private record Event(long sequence, String name, Object data) {
+    }
+
+    private final WorkflowCounterService workflowCounterService;
+    private final ThreadPoolTaskExecutor streamExecutor;
+
+    private final String streamId = Long.toString(System.currentTimeMillis(), 36);
+    private final Deque<Event> replay = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // guarded by replay
+    private long sequence;
+    private volatile ApplicationCounts lastCounts;
+
+    @Value("${app.dashboard.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.dashboard.stream.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.dashboard.stream.replay-size:1000}")
+    private int replaySize;
+
+    @Value("${app.dashboard.stream.max-subscribers:1000}")
+    private int maxSubscribers;
+
+    public DashboardStreamServiceImpl(WorkflowCounterService workflowCounterService,
+                                      @Qualifier("dashboardStreamExecutor") ThreadPoolTaskExecutor streamExecutor) {
+        this.workflowCounterService = workflowCounterService;
+        this.streamExecutor = streamExecutor;
+    }
+
+    @Override
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new StreamCapacityException("Too many open dashboard streams, try again later");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        // Read outside the lock; the snapshot is authoritative and later "stats" events correct any overlap.
+        ApplicationCounts snapshot = workflowCounterService.getCounts();
+        synchronized (replay) {
+            List<Event> missed = missedSince(lastEventId);
+            if (missed == null || missed.size() > bufferSize) {
+                subscriber.offer(toSse(new Event(sequence, STATS_EVENT, snapshot)));
+            } else {
+                missed.forEach(event -> subscriber.offer(toSse(event)));
+            }
+            // Registered under the same lock as publish, so nothing falls between the replay and live events.
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransition(WorkflowTransitionEvent event) {
+        publish(TRANSITION_EVENT, event);
+    }
+
+    /**
+     * Broadcasts the totals when they changed, which also covers transitions
+     * made on other nodes.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.stream.stats-interval-ms:10000}")
+    public void publishStats() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        ApplicationCounts counts = workflowCounterService.getCounts();
+        if (!counts.equals(lastCounts)) {
+            lastCounts = counts;
+            publish(STATS_EVENT, counts);
+        }
+    }
+
+    /**
+     * Keeps idle connections from being closed by proxies and detects clients
+     * that went away.
+     */
+    @Scheduled(fixedRateString = "${app.dashboard.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(heartbeat);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void publish(String name, Object data) {
+        synchronized (replay) {
+            Event event = new Event(++sequence, name, data);
+            replay.addLast(event);
+            while (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            Set<DataWithMediaType> sse = toSse(event);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(sse);
+            }
+        }
+    }
+
+    /**
+     * @return the events after lastEventId, or null when the client needs a
+     *         snapshot instead (new client, other stream, or fell off the ring)
+     */
+    private List<Event> missedSince(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(streamId + "-")) {
+            return null;
+        }
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(streamId.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (last > sequence) {
+            return null;
+        }
+        long oldestAvailable = replay.isEmpty() ? sequence + 1 : replay.peekFirst().sequence();
+        if (last + 1 < oldestAvailable) {
+            return null;
+        }
+        List<Event> missed = new ArrayList<>();
+        for (Event event : replay) {
+            if (event.sequence() > last) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    // Built once and shared: SseEventBuilder.build() is not safe to call twice.
+    private Set<DataWithMediaType> toSse(Event event) {
+        return SseEmitter.event()
+                .id(streamId + "-" + event.sequence())
+                .name(event.name())
+                .data(event.data(), MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> event) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                logger.debug("Dashboard stream buffer full, closing subscriber");
+                close();
+                emitter.complete();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                streamExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                close();
+                emitter.complete();
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> event;
+                while (!closed && (event = buffer.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client disconnected or the emitter already completed.
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            buffer.clear();
+        }
+    }
+}
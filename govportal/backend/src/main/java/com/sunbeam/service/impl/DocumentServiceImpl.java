@@ -1,34 +1,42 @@
 package com.sunbeam.service.impl;
 
+import com.sunbeam.dto.FileStream;
+import com.sunbeam.dto.StoredObject;
 import com.sunbeam.dto.request.DocumentApplicationRequest;
+import com.sunbeam.dto.request.PresignedSubmissionRequest;
+import com.sunbeam.dto.request.PresignedUploadRequest;
 import com.sunbeam.dto.response.DocumentApplicationDetailsResponse;
 import com.sunbeam.dto.response.DocumentApplicationResponse;
 import com.sunbeam.dto.response.DocumentProofResponse;
+import com.sunbeam.dto.response.PresignedUrlResponse;
 import com.sunbeam.exception.*;
 import com.sunbeam.model.*;
 import com.sunbeam.repository.DocumentApplicationRepository;
 import com.sunbeam.repository.DocumentProofRepository;
 import com.sunbeam.security.SecurityUtils;
+import com.sunbeam.service.CertificateStorageService;
 import com.sunbeam.service.DocumentService;
+import com.sunbeam.service.StorageService;
+import com.sunbeam.service.WorkflowCounterService;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @Service
@@ -39,72 +47,157 @@ public class DocumentServiceImpl implements DocumentService {
     private final SecurityUtils securityUtils;
     private final ModelMapper modelMapper;
     private final DocumentProofRepository documentProofRepository;
-    private final S3Client s3Client;
+    private final StorageService storageService;
+    private final TransactionTemplate transactionTemplate;
+    private final WorkflowCounterService workflowCounterService;
+    private final CertificateStorageService certificateStorageService;
 
-    @Value("${aws.s3.bucket-name}")
-    private String bucketName;
+    @Value("${app.storage.delivery-mode:proxy}")
+    private String deliveryMode;
+
+    @Value("${app.max-file-size}")
+    private long maxFileSize;
+
+    @Value("${app.allowed-file-types}")
+    private Set<String> allowedFileTypes;
 
     private static final Logger logger = LoggerFactory.getLogger(DocumentServiceImpl.class);
 
+    /**
+     * Uploads every proof to S3 first (in parallel, outside any transaction) and
+     * only then opens a short transaction to persist the application. If the
+     * database write fails the uploaded objects are deleted again.
+     *
+     * Nothing here waits for S3: the transaction runs on the thread that
+     * completes the last upload, and the caller gets the future back.
+     */
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public DocumentApplication submitApplication(User applicant, DocumentApplicationRequest request, List<MultipartFile> files) {
-        DocumentApplication application = DocumentApplication.builder()
-                .applicant(applicant)
-                .documentType(DocumentApplication.DocumentType.fromString(request.getDocumentType()))
-                .purpose(request.getPurpose())
-                .formData(request.getFormData())
-                .status(DocumentApplication.ApplicationStatus.PENDING)
-                .submissionDate(LocalDateTime.now())
-                .currentDesk("DESK_1")
-                .build();
+    public CompletableFuture<DocumentApplication> submitApplication(User applicant, DocumentApplicationRequest request, List<MultipartFile> files) {
+        DocumentApplication.DocumentType documentType = DocumentApplication.DocumentType.fromString(request.getDocumentType());
+
+        return storageService.uploadProofs(files)
+                .thenApply(storedProofs -> persistApplication(applicant, documentType, request, storedProofs));
+    }
+
+    /**
+     * Hands out one presigned PUT URL per declared file. The objects land under
+     * a per-user prefix so that {@link #confirmPresignedSubmission} can tell
+     * they were issued to this applicant.
+     */
+    @Override
+    public List<PresignedUrlResponse> presignProofUploads(User applicant, PresignedUploadRequest request) {
+        requirePresignedDelivery();
+
+        List<PresignedUrlResponse> uploadUrls = new ArrayList<>();
+        for (PresignedUploadRequest.ProofFile file : request.getFiles()) {
+            validateProof(file.getFileName(), file.getContentType(), file.getSize());
+            String objectKey = uploadPrefix(applicant) + UUID.randomUUID() + "_" + safeFileName(file.getFileName());
+            uploadUrls.add(storageService.presignPut(objectKey, file.getContentType(), file.getSize()));
+        }
+        return uploadUrls;
+    }
+
+    /**
+     * Persists an application whose proofs the client already PUT to S3. Each
+     * object is checked with a HEAD request, since the client could have
+     * uploaded something other than what it declared.
+     */
+    @Override
+    public DocumentApplication confirmPresignedSubmission(User applicant, PresignedSubmissionRequest request) {
+        requirePresignedDelivery();
+
+        DocumentApplicationRequest applicationData = request.getApplicationData();
+        DocumentApplication.DocumentType documentType = DocumentApplication.DocumentType.fromString(applicationData.getDocumentType());
+
+        String prefix = uploadPrefix(applicant);
+        Set<String> objectKeys = new HashSet<>();
+        for (PresignedSubmissionRequest.UploadedProof proof : request.getProofs()) {
+            if (!proof.getObjectKey().startsWith(prefix) || !objectKeys.add(proof.getObjectKey())) {
+                throw new ForbiddenAccessException("Invalid upload reference: " + proof.getObjectKey());
+            }
+        }
+        if (documentProofRepository.existsByFilePathIn(objectKeys)) {
+            throw new InvalidOperationException("These uploads were already submitted.");
+        }
+
+        List<StoredObject> storedProofs = new ArrayList<>();
+        for (PresignedSubmissionRequest.UploadedProof proof : request.getProofs()) {
+            HeadObjectResponse metadata = storageService.headObject(proof.getObjectKey());
+            try {
+                validateProof(proof.getFileName(), metadata.contentType(), metadata.contentLength());
+            } catch (InvalidFileTypeException e) {
+                // This object can never be accepted, so don't leave it behind.
+                storageService.deleteObjects(List.of(proof.getObjectKey()));
+                throw e;
+            }
+            storedProofs.add(StoredObject.builder()
+                    .originalFileName(proof.getFileName())
+                    .objectKey(proof.getObjectKey())
+                    .contentType(metadata.contentType())
+                    .size(metadata.contentLength())
+                    .build());
+        }
 
-        application = documentRepository.save(application);
+        return persistApplication(applicant, documentType, applicationData, storedProofs);
+    }
 
-        List<DocumentProof> documentProofs = new ArrayList<>();
+    private DocumentApplication persistApplication(User applicant, DocumentApplication.DocumentType documentType,
+                                                   DocumentApplicationRequest request, List<StoredObject> storedProofs) {
         try {
-            for (MultipartFile file : files) {
-                String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-                String objectKey = "documents/" + fileName;
-
-                // Upload file to AWS S3
-                s3Client.putObject(
-                        PutObjectRequest.builder()
-                                .bucket(bucketName)
-                                .key(objectKey)
-                                .contentType(file.getContentType())
-                                .acl(ObjectCannedACL.PRIVATE) // set ACL as needed
-                                .build(),
-                        RequestBody.fromInputStream(file.getInputStream(), file.getSize())
-                );
-
-                // Save metadata in DocumentProof
-                DocumentProof documentProof = DocumentProof.builder()
-                        .application(application)
-                        .fileName(file.getOriginalFilename())
-                        .filePath(objectKey)
-                        .contentType(file.getContentType())
+            DocumentApplication application = transactionTemplate.execute(status -> {
+                DocumentApplication newApplication = DocumentApplication.builder()
+                        .applicant(applicant)
+                        .documentType(documentType)
+                        .purpose(request.getPurpose())
+                        .formData(request.getFormData())
+                        .status(DocumentApplication.ApplicationStatus.PENDING)
+                        .submissionDate(LocalDateTime.now())
+                        .currentDesk("DESK_1")
                         .build();
 
-                documentProofRepository.save(documentProof);
-                documentProofs.add(documentProof);
-            }
+                List<DocumentProof> documentProofs = new ArrayList<>();
+                for (StoredObject storedProof : storedProofs) {
+                    documentProofs.add(DocumentProof.builder()
+                            .application(newApplication)
+                            .fileName(storedProof.getOriginalFileName())
+                            .filePath(storedProof.getObjectKey())
+                            .contentType(storedProof.getContentType())
+                            .build());
+                }
+                newApplication.setDocumentProofs(documentProofs);
 
-            application.setDocumentProofs(documentProofs);
-            documentRepository.save(application);
+                DocumentApplication saved = documentRepository.save(newApplication);
+                workflowCounterService.recordSubmission(saved);
+                return saved;
+            });
 
             logger.info("Document application submitted successfully for user: {}", applicant.getEmail());
             return application;
 
-        } catch (IOException e) {
-            logger.error("Error uploading file to S3: {}", e.getMessage(), e);
-            throw new FileStorageException("Failed to upload files to S3.");
         } catch (Exception e) {
+            storageService.deleteObjects(storedProofs.stream().map(StoredObject::getObjectKey).toList());
             logger.error("Unexpected error submitting application: {}", e.getMessage(), e);
             throw new DatabaseOperationException("Failed to submit the application. Please try again.");
         }
     }
 
+    private void validateProof(String fileName, String contentType, long size) {
+        if (contentType == null || !allowedFileTypes.contains(contentType)) {
+            throw new InvalidFileTypeException("File type not allowed for " + fileName + ": " + contentType);
+        }
+        if (size <= 0 || size > maxFileSize) {
+            throw new InvalidFileTypeException("File " + fileName + " exceeds the maximum size of " + maxFileSize + " bytes");
+        }
+    }
+
+    private String uploadPrefix(User applicant) {
+        return "documents/uploads/" + applicant.getId() + "/";
+    }
+
+    private String safeFileName(String fileName) {
+        return fileName.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<DocumentApplicationResponse> getAllApplications(Pageable pageable) {
@@ -126,17 +219,73 @@ public class DocumentServiceImpl implements DocumentService {
         return modelMapper.map(application, DocumentApplicationResponse.class);
     }
 
+    /**
+     * Opens the certificate of an approved application for streaming from S3.
+     * Storage errors fail the future with an IOException.
+     *
+     * Certificates issued before they moved to S3 may still sit in the legacy
+     * certificate_pdf column until CertificateBlobMigrationRunner reaches
+     * them; those are served from the column without uploading on this thread.
+     */
+    @Override
+    public CompletableFuture<FileStream> openCertificate(Long applicationId) {
+        DocumentApplication application = findCertifiedApplication(applicationId);
+        String certificateKey = application.getCertificateKey();
+        if (certificateKey == null) {
+            byte[] legacyPdf = certificateStorageService.readLegacyCertificate(applicationId);
+            if (legacyPdf == null) {
+                throw new IllegalStateException("Certificate is still being generated. Please try again shortly.");
+            }
+            return CompletableFuture.completedFuture(FileStream.builder()
+                    .fileName("certificate.pdf")
+                    .contentType("application/pdf")
+                    .contentLength((long) legacyPdf.length)
+                    .content(new ByteArrayInputStream(legacyPdf))
+                    .build());
+        }
+
+        return storageService.getObject(certificateKey, null)
+                .handle((object, error) -> {
+                    if (error != null) {
+                        Throwable cause = unwrap(error);
+                        if (cause instanceof S3Exception) {
+                            logger.error("Error retrieving certificate from S3: {}", cause.getMessage(), cause);
+                            throw new CompletionException(new IOException("Failed to retrieve certificate for application " + applicationId, cause));
+                        }
+                        throw new CompletionException(cause);
+                    }
+                    return FileStream.builder()
+                            .fileName("certificate.pdf")
+                            .contentType("application/pdf")
+                            .contentLength(object.response().contentLength())
+                            .content(object)
+                            .build();
+                });
+    }
+
+    /**
+     * A certificate still in the legacy column has no object to presign yet;
+     * the background migration uploads it shortly after startup.
+     */
     @Override
-    @Transactional
-    public byte[] getCertificatePdf(Long applicationId) {
+    public PresignedUrlResponse presignCertificate(Long applicationId) {
+        requirePresignedDelivery();
+        String certificateKey = findCertifiedApplication(applicationId).getCertificateKey();
+        if (certificateKey == null) {
+            throw new IllegalStateException("Certificate is not available in storage yet. Please try again shortly.");
+        }
+        return storageService.presignGet(certificateKey, "certificate.pdf", "application/pdf");
+    }
+
+    private DocumentApplication findCertifiedApplication(Long applicationId) {
         DocumentApplication application = documentRepository.findById(applicationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Application not found with ID: " + applicationId));
 
+        checkApplicantAccess(application);
         if (application.getStatus() != DocumentApplication.ApplicationStatus.APPROVED) {
             throw new IllegalStateException("Certificate can only be downloaded for approved applications.");
         }
-
-        return application.getCertificatePdf();
+        return application;
     }
 
     @Override
@@ -187,37 +336,84 @@ public class DocumentServiceImpl implements DocumentService {
         return applicationsList.map(app -> modelMapper.map(app, DocumentApplicationResponse.class));
     }
 
+    /**
+     * Opens a document proof for streaming. The proof row is read once and the
+     * S3 response is handed back unread, so the caller can pipe it to the
+     * client without buffering the file on the heap. Storage errors fail the
+     * future with a RangeNotSatisfiableException or an IOException.
+     */
     @Override
-    public Resource viewDocumentProof(Long documentProofId) throws IOException {
-        DocumentProof documentProof = documentProofRepository.findById(documentProofId)
+    public CompletableFuture<FileStream> openDocumentProof(Long documentProofId, String range) {
+        DocumentProof documentProof = findAccessibleProof(documentProofId);
+
+        return storageService.getObject(documentProof.getFilePath(), range)
+                .handle((object, error) -> {
+                    if (error != null) {
+                        Throwable cause = unwrap(error);
+                        if (cause instanceof S3Exception e) {
+                            if (e.statusCode() == 416) {
+                                throw new RangeNotSatisfiableException("Requested range not satisfiable: " + range);
+                            }
+                            logger.error("Error retrieving file from S3: {}", e.getMessage(), e);
+                            throw new CompletionException(new IOException("Failed to retrieve file from S3: " + documentProof.getFileName(), e));
+                        }
+                        throw new CompletionException(cause);
+                    }
+                    GetObjectResponse metadata = object.response();
+
+                    return FileStream.builder()
+                            .fileName(documentProof.getFileName())
+                            .contentType(documentProof.getContentType())
+                            .contentLength(metadata.contentLength())
+                            .contentRange(range != null ? metadata.contentRange() : null)
+                            .content(object)
+                            .build();
+                });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    @Override
+    public boolean isPresignedDelivery() {
+        return "presigned".equalsIgnoreCase(deliveryMode);
+    }
+
+    /**
+     * Same access rules as {@link #openDocumentProof}, but instead of the bytes
+     * the caller gets a short-lived URL to fetch them from S3 directly.
+     */
+    @Override
+    public PresignedUrlResponse presignDocumentProof(Long documentProofId) {
+        requirePresignedDelivery();
+        DocumentProof documentProof = findAccessibleProof(documentProofId);
+        return storageService.presignGet(documentProof.getFilePath(), documentProof.getFileName(), documentProof.getContentType());
+    }
+
+    /**
+     * Loads a proof and checks that the current user may see it: staff can
+     * see every proof, citizens only the proofs of their own applications.
+     */
+    private DocumentProof findAccessibleProof(Long documentProofId) {
+        DocumentProof documentProof = documentProofRepository.findByIdWithApplication(documentProofId)
                 .orElseThrow(() -> new ResourceNotFoundException("DocumentProof not found with ID: " + documentProofId));
 
-        try {
-            GetObjectResponse response;
-            byte[] fileContent = s3Client.getObject(
-                    GetObjectRequest.builder()
-                            .bucket(bucketName)
-                            .key(documentProof.getFilePath())
-                            .build(),
-                    software.amazon.awssdk.core.sync.ResponseTransformer.toBytes()
-            ).asByteArray();
-
-            return new ByteArrayResource(fileContent) {
-                @Override
-                public String getFilename() {
-                    return documentProof.getFileName();
-                }
-            };
+        checkApplicantAccess(documentProof.getApplication());
+        return documentProof;
+    }
 
-        } catch (S3Exception e) {
-            logger.error("Error retrieving file from S3: {}", e.getMessage(), e);
-            throw new IOException("Failed to retrieve file from S3: " + documentProof.getFileName(), e);
+    private void checkApplicantAccess(DocumentApplication application) {
+        User currentUser = securityUtils.getCurrentUser();
+        if (currentUser.getRole() == User.Role.CITIZEN
+                && !application.getApplicant().getId().equals(currentUser.getId())) {
+            throw new ForbiddenAccessException("You are not allowed to access this application.");
         }
     }
 
-    public String getDocumentProofContentType(Long documentProofId) {
-        DocumentProof documentProof = documentProofRepository.findById(documentProofId)
-                .orElseThrow(() -> new ResourceNotFoundException("DocumentProof not found with ID: " + documentProofId));
-        return documentProof.getContentType();
+    private void requirePresignedDelivery() {
+        if (!isPresignedDelivery()) {
+            throw new InvalidOperationException("Presigned URLs are disabled; use the proxied endpoints instead.");
+        }
     }
 }
@@ -0,0 +1,200 @@
+package com.sunbeam.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sunbeam.model.EmailOutbox;
+import com.sunbeam.repository.EmailOutboxRepository;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers queued emails. Each poll claims a batch of due outbox rows with
+ * SELECT ... FOR UPDATE SKIP LOCKED, renders them and sends the batch over
+ * the pooled SMTP connections of {@link SmtpTransportPool}. Failed
+ * messages are retried with exponential backoff until max-attempts.
+ *
+ * Delivery is at-least-once: a dispatcher that dies after sending but
+ * before marking the batch SENT will have it sent again once the lease runs out.
+ * A dispatcher whose lease ran out while it was sending only records results
+ * for rows it still owns (SENDING, with the attempt count it claimed), so it
+ * never overwrites the state written by whoever claimed them next.
+ */
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final String FROM_ADDRESS = "noreply@portal.gov.in";
+
+    private final EmailOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final SmtpTransportPool transportPool;
+    private final TemplateEngine templateEngine;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${frontend.url}")
+    private String frontendUrl;
+
+    @Value("${app.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.email.outbox.lease-ms:120000}")
+    private long leaseMs;
+
+    @Value("${app.email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.retry-base-delay-ms:30000}")
+    private long retryBaseDelayMs;
+
+    @Value("${app.email.outbox.retry-max-delay-ms:3600000}")
+    private long retryMaxDelayMs;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepository,
+                                 JavaMailSender mailSender,
+                                 SmtpTransportPool transportPool,
+                                 TemplateEngine templateEngine,
+                                 ObjectMapper objectMapper,
+                                 TransactionTemplate transactionTemplate) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.transportPool = transportPool;
+        this.templateEngine = templateEngine;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:2000}")
+    public void dispatchDueMessages() {
+        List<EmailOutbox> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<Long, String> failures = new HashMap<>();
+        Map<MimeMessage, Long> messageIds = new IdentityHashMap<>();
+        for (EmailOutbox outbox : batch) {
+            try {
+                messageIds.put(toMimeMessage(outbox), outbox.getId());
+            } catch (Exception e) {
+                failures.put(outbox.getId(), describe(e));
+            }
+        }
+
+        transportPool.sendAll(new ArrayList<>(messageIds.keySet()))
+                .forEach((message, cause) -> failures.put(messageIds.get(message), describe(cause)));
+
+        recordResults(batch, failures);
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutbox> due = outboxRepository.lockDueMessages(now, batchSize);
+            for (EmailOutbox outbox : due) {
+                outbox.setStatus(EmailOutbox.Status.SENDING);
+                outbox.setAttempts(outbox.getAttempts() + 1);
+                outbox.setLeaseExpiresAt(now.plus(Duration.ofMillis(leaseMs)));
+            }
+            return due;
+        });
+    }
+
+    private MimeMessage toMimeMessage(EmailOutbox outbox) throws Exception {
+        String html = outbox.getTemplate() != null ? render(outbox) : outbox.getBody();
+
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setTo(outbox.getRecipient());
+        helper.setSubject(outbox.getSubject());
+        helper.setText(html, true);
+        helper.setFrom(FROM_ADDRESS);
+        return message;
+    }
+
+    private String render(EmailOutbox outbox) throws Exception {
+        Map<String, Object> variables = outbox.getVariables() == null
+                ? Map.of()
+                : objectMapper.readValue(outbox.getVariables(), new TypeReference<Map<String, Object>>() {});
+        Context context = new Context();
+        context.setVariable("frontendUrl", frontendUrl);
+        context.setVariables(variables);
+        return templateEngine.process(outbox.getTemplate(), context);
+    }
+
+    /**
+     * Records the outcome only for rows this dispatcher still owns: still
+     * SENDING with the attempt number it claimed. If the lease ran out
+     * mid-batch and another node claimed a row again, that node's state wins.
+     */
+    private void recordResults(List<EmailOutbox> batch, Map<Long, String> failures) {
+        Map<Long, Integer> claimedAttempts = new HashMap<>();
+        for (EmailOutbox claimed : batch) {
+            claimedAttempts.put(claimed.getId(), claimed.getAttempts());
+        }
+        Integer lost = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            int notOwned = 0;
+            for (EmailOutbox outbox : outboxRepository.lockByIds(claimedAttempts.keySet())) {
+                if (outbox.getStatus() != EmailOutbox.Status.SENDING
+                        || outbox.getAttempts() != claimedAttempts.get(outbox.getId())) {
+                    notOwned++;
+                    continue;
+                }
+                outbox.setLeaseExpiresAt(null);
+                String error = failures.get(outbox.getId());
+                if (error == null) {
+                    outbox.setStatus(EmailOutbox.Status.SENT);
+                    outbox.setLastError(null);
+                    outbox.setSentAt(now);
+                } else {
+                    recordFailure(outbox, error, now);
+                }
+            }
+            return notOwned;
+        });
+        if (lost != null && lost > 0) {
+            logger.warn("{} email(s) were claimed again after their lease expired, results left to the new owner", lost);
+        }
+        if (!failures.isEmpty()) {
+            logger.warn("Sent {} of {} queued email(s)", batch.size() - failures.size(), batch.size());
+        }
+    }
+
+    private void recordFailure(EmailOutbox outbox, String error, LocalDateTime now) {
+        outbox.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        if (outbox.getAttempts() >= maxAttempts) {
+            outbox.setStatus(EmailOutbox.Status.FAILED);
+            logger.error("Email {} to {} failed permanently after {} attempts: {}",
+                    outbox.getId(), outbox.getRecipient(), outbox.getAttempts(), error);
+        } else {
+            long delayMs = Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(outbox.getAttempts() - 1, 20));
+            outbox.setStatus(EmailOutbox.Status.PENDING);
+            outbox.setNextAttemptAt(now.plus(Duration.ofMillis(delayMs)));
+            logger.warn("Email {} to {} failed (attempt {}), retrying in {} ms: {}",
+                    outbox.getId(), outbox.getRecipient(), outbox.getAttempts(), delayMs, error);
+        }
+    }
+
+    private String describe(Throwable e) {
+        return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+}
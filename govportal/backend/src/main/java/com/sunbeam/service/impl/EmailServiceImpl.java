@@ -1,82 +1,79 @@
 package com.sunbeam.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sunbeam.model.EmailOutbox;
+import com.sunbeam.repository.EmailOutboxRepository;
 import com.sunbeam.service.EmailService;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
-//import javax.mail.MessagingException;
-//import javax.mail.internet.MimeMessage;
 
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Queues emails in the outbox instead of talking to the mail server.
+ * Called inside a transaction, the message is only sent if that transaction
+ * commits; {@link EmailOutboxDispatcher} renders and delivers it.
+ */
 @Service
 @RequiredArgsConstructor
 public class EmailServiceImpl implements EmailService {
 
-    private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
+    private final EmailOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
 
     @Value("${frontend.url}")
-    private String frontendUrl; 
-    
+    private String frontendUrl;
+
     @Override
     public void sendVerificationEmail(String toEmail, String token) {
-        Context context = new Context();
         String verificationLink = frontendUrl + "/verify-email?token=" + token;
-        context.setVariable("verificationLink", verificationLink);
-        context.setVariable("token", token);
-
-        String htmlContent = templateEngine.process("email/verification", context);
-        sendHtmlEmail(toEmail, "Verify Your Email", htmlContent);
+        enqueue(toEmail, "Verify Your Email", "email/verification",
+                Map.of("verificationLink", verificationLink, "token", token));
     }
 
 
     @Override
     public void sendPasswordResetEmail(String toEmail, String token) {
-        Context context = new Context();
         String resetLink = frontendUrl + "/reset-password?token=" + token;
-        context.setVariable("resetLink", resetLink);
-        context.setVariable("token", token);
-
-        String htmlContent = templateEngine.process("email/password-reset", context);
-        sendHtmlEmail(toEmail, "Password Reset Request", htmlContent);
+        enqueue(toEmail, "Password Reset Request", "email/password-reset",
+                Map.of("resetLink", resetLink, "token", token));
     }
 
     @Override
     public void sendApplicationStatusUpdate(String toEmail, String subject, String body) {
-        Context context = new Context();
-        context.setVariable("message", body);
-
-        String htmlContent = templateEngine.process("email/status-email", context);
-
-        sendHtmlEmail(toEmail, subject, htmlContent);
+        enqueue(toEmail, subject, "email/status-email", Map.of("message", body));
     }
 
     @Override
     public void sendSystemAlert(String toEmail, String subject, String message) {
-        sendHtmlEmail(toEmail, subject, 
-            "<h3>System Alert</h3><p>" + message + "</p>");
+        outboxRepository.save(newMessage(toEmail, subject)
+                .body("<h3>System Alert</h3><p>" + message + "</p>")
+                .build());
     }
 
-    private void sendHtmlEmail(String to, String subject, String htmlContent) {
+    private void enqueue(String to, String subject, String template, Map<String, Object> variables) {
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
-            helper.setFrom("noreply@portal.gov.in");
-            
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            throw new RuntimeException("Failed to send email", e);
+            outboxRepository.save(newMessage(to, subject)
+                    .template(template)
+                    .variables(objectMapper.writeValueAsString(variables))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to queue email", e);
         }
     }
-}
\ No newline at end of file
+
+    private EmailOutbox.EmailOutboxBuilder newMessage(String to, String subject) {
+        LocalDateTime now = LocalDateTime.now();
+        return EmailOutbox.builder()
+                .recipient(to)
+                .subject(subject)
+                .status(EmailOutbox.Status.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now);
+    }
+}
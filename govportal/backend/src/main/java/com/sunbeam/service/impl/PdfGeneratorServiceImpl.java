@@ -2,158 +2,321 @@ package com.sunbeam.service.impl;
 
 import com.sunbeam.dto.BirthCertificateFormData;
 import com.sunbeam.dto.CasteCertificateFormData;
+import com.sunbeam.dto.DailyReportData;
 import com.sunbeam.dto.DomicileCertificateFormData;
 import com.sunbeam.dto.IncomeCertificateFormData;
 import com.sunbeam.model.DocumentApplication;
+import com.sunbeam.model.DocumentApplication.DocumentType;
 import com.sunbeam.model.User;
 import com.sunbeam.service.PdfGeneratorService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
 import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Canvas;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 
+import com.itextpdf.layout.layout.LayoutArea;
+import com.itextpdf.layout.layout.LayoutContext;
+import com.itextpdf.layout.layout.LayoutResult;
 import com.itextpdf.layout.properties.*;
 
+import com.itextpdf.layout.renderer.CanvasRenderer;
+import com.itextpdf.layout.renderer.DrawContext;
+import com.itextpdf.layout.renderer.IRenderer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class PdfGeneratorServiceImpl implements PdfGeneratorService {
 
+	private static final Logger logger = LoggerFactory.getLogger(PdfGeneratorServiceImpl.class);
+
 	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd MMMM yyyy");
+	private static final float MARGIN = 36;
+	private static final float SIGNATURE_BLOCK_HEIGHT = 130;
+	private static final float HEADER_BLOCK_HEIGHT = 55;
+
 	@Autowired
     private ObjectMapper objectMapper;
-	
+
+	// Font programs are parsed once; each PDF only wraps them in its own PdfFont.
+	private FontProgram headerFontProgram;
+	private FontProgram bodyFontProgram;
+
+	private final Map<DocumentType, CertificateTemplate<?>> templates = new EnumMap<>(DocumentType.class);
+
+	/**
+	 * Compiles one template per document type: the static page is rendered once
+	 * here, and per certificate only the details table is drawn onto a copy.
+	 */
+	@PostConstruct
+	void compileTemplates() throws IOException {
+		headerFontProgram = FontProgramFactory.createFont(StandardFonts.HELVETICA_BOLD);
+		bodyFontProgram = FontProgramFactory.createFont(StandardFonts.HELVETICA);
+
+		byte[] basePdf = renderBasePage();
+		Rectangle tableArea = new Rectangle(MARGIN, MARGIN + SIGNATURE_BLOCK_HEIGHT,
+				PageSize.A4.getWidth() - 2 * MARGIN,
+				PageSize.A4.getHeight() - 2 * MARGIN - SIGNATURE_BLOCK_HEIGHT - HEADER_BLOCK_HEIGHT);
+
+		templates.put(DocumentType.INCOME, CertificateTemplate.<IncomeCertificateFormData>builder(
+						objectMapper.readerFor(IncomeCertificateFormData.class))
+				.field("Father/Husband Name:", IncomeCertificateFormData::getFatherOrHusbandName)
+				.field("Annual Income:", IncomeCertificateFormData::getAnnualIncome)
+				.field("Occupation:", IncomeCertificateFormData::getOccupation)
+				.field("Number of Family Members:", IncomeCertificateFormData::getNumberOfFamilyMembers)
+				.field("Residential Address:", IncomeCertificateFormData::getResidentialAddress)
+				.build(basePdf, tableArea));
+
+		templates.put(DocumentType.DOMICILE, CertificateTemplate.<DomicileCertificateFormData>builder(
+						objectMapper.readerFor(DomicileCertificateFormData.class))
+				.field("Father's Name:", DomicileCertificateFormData::getFatherName)
+				.field("Date of Birth:", DomicileCertificateFormData::getDateOfBirth)
+				.field("Place of Birth:", DomicileCertificateFormData::getPlaceOfBirth)
+				.field("Residential Address:", DomicileCertificateFormData::getResidentialAddress)
+				.field("Years of Residence:", DomicileCertificateFormData::getYearsOfResidence)
+				.field("Reason for Domicile:", DomicileCertificateFormData::getReasonForDomicile)
+				.build(basePdf, tableArea));
+
+		templates.put(DocumentType.CASTE, CertificateTemplate.<CasteCertificateFormData>builder(
+						objectMapper.readerFor(CasteCertificateFormData.class))
+				.field("Father's Name:", CasteCertificateFormData::getFatherName)
+				.field("Mother's Name:", CasteCertificateFormData::getMotherName)
+				.field("Date of Birth:", CasteCertificateFormData::getDateOfBirth)
+				.field("Place of Birth:", CasteCertificateFormData::getPlaceOfBirth)
+				.field("Caste Name:", CasteCertificateFormData::getCasteName)
+				.field("Residential Address:", CasteCertificateFormData::getResidentialAddress)
+				.build(basePdf, tableArea));
+
+		templates.put(DocumentType.BIRTH, CertificateTemplate.<BirthCertificateFormData>builder(
+						objectMapper.readerFor(BirthCertificateFormData.class))
+				.field("Date of Birth:", BirthCertificateFormData::getDateOfBirth)
+				.field("Place of Birth:", BirthCertificateFormData::getPlaceOfBirth)
+				.field("Gender:", BirthCertificateFormData::getGender)
+				.field("Father's Full Name:", BirthCertificateFormData::getFatherFullName)
+				.field("Mother's Full Name:", BirthCertificateFormData::getMotherFullName)
+				.field("Hospital Name:", BirthCertificateFormData::getHospitalName)
+				.field("Child's Full Name:", BirthCertificateFormData::getChildFullName)
+				.build(basePdf, tableArea));
+	}
+
 	@Override
     public byte[] generateCertificate(DocumentApplication application) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PdfDocument pdf = new PdfDocument(new PdfWriter(baos));
-        Document document = new Document(pdf);
-
-        // Fonts
-        PdfFont headerFont = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
-        PdfFont bodyFont = PdfFontFactory.createFont(StandardFonts.HELVETICA);
-
-        // Header
-        document.add(new Paragraph("OFFICIAL GOVERNMENT CERTIFICATE")
-            .setFont(headerFont)
-            .setFontSize(18)
-            .setFontColor(ColorConstants.BLUE)
-            .setTextAlignment(TextAlignment.CENTER));
-
-        // Applicant Details Table (common information)
-        Table table = new Table(UnitValue.createPercentArray(new float[]{30, 70}))
-            .setWidth(UnitValue.createPercentValue(80))
-            .setMarginTop(20);
-
-        User citizen = application.getApplicant();
-        addTableRow(table, "Certificate Number:", application.getId().toString());
-        addTableRow(table, "Full Name:", citizen.getFullName());
-        addTableRow(table, "Aadhar Number:", citizen.getAadharNumber());
-        addTableRow(table, "Certificate Type:", application.getDocumentType().name());
-        addTableRow(table, "Issue Date:", LocalDate.now().format(DATE_FORMATTER));
-
-        String formDataJson = application.getFormData();
-        			//		code for indidvidual docuemnt / certificate type
-        try {
-            switch (application.getDocumentType()) {
-                case INCOME: {
-                    if (formDataJson != null && !formDataJson.isEmpty()) {
-                        IncomeCertificateFormData incomeData = objectMapper.readValue(formDataJson, IncomeCertificateFormData.class);
-                        addTableRow(table, "Father/Husband Name:", incomeData.getFatherOrHusbandName());
-                        addTableRow(table, "Annual Income:", incomeData.getAnnualIncome());
-                        addTableRow(table, "Occupation:", incomeData.getOccupation());
-                        addTableRow(table, "Number of Family Members:", incomeData.getNumberOfFamilyMembers());
-                        addTableRow(table, "Residential Address:", incomeData.getResidentialAddress());
-                    }
-                    break;
-                }
-                case DOMICILE: {
-                    if (formDataJson != null && !formDataJson.isEmpty()) {
-                        DomicileCertificateFormData domicileData = objectMapper.readValue(formDataJson, DomicileCertificateFormData.class);
-                        addTableRow(table, "Father's Name:", domicileData.getFatherName());
-                        addTableRow(table, "Date of Birth:", domicileData.getDateOfBirth());
-                        addTableRow(table, "Place of Birth:", domicileData.getPlaceOfBirth());
-                        addTableRow(table, "Residential Address:", domicileData.getResidentialAddress());
-                        addTableRow(table, "Years of Residence:", domicileData.getYearsOfResidence());
-                        addTableRow(table, "Reason for Domicile:", domicileData.getReasonForDomicile());
-                    }
-                    break;
-                }
-                case CASTE: {
-                    if (formDataJson != null && !formDataJson.isEmpty()) {
-                        CasteCertificateFormData casteData = objectMapper.readValue(formDataJson, CasteCertificateFormData.class);
-                        addTableRow(table, "Father's Name:", casteData.getFatherName());
-                        addTableRow(table, "Mother's Name:", casteData.getMotherName());
-                        addTableRow(table, "Date of Birth:", casteData.getDateOfBirth());
-                        addTableRow(table, "Place of Birth:", casteData.getPlaceOfBirth());
-                        addTableRow(table, "Caste Name:", casteData.getCasteName());
-                        addTableRow(table, "Residential Address:", casteData.getResidentialAddress());
-                    }
-                    break;
-                }
-                case BIRTH: {
-                    if (formDataJson != null && !formDataJson.isEmpty()) {
-                        BirthCertificateFormData birthData = objectMapper.readValue(formDataJson, BirthCertificateFormData.class);
-                        addTableRow(table, "Date of Birth:", birthData.getDateOfBirth());
-                        addTableRow(table, "Place of Birth:", birthData.getPlaceOfBirth());
-                        addTableRow(table, "Gender:", birthData.getGender());
-                        addTableRow(table, "Father's Full Name:", birthData.getFatherFullName());
-                        addTableRow(table, "Mother's Full Name:", birthData.getMotherFullName());
-                        addTableRow(table, "Hospital Name:", birthData.getHospitalName());
-                        addTableRow(table, "Child's Full Name:", birthData.getChildFullName());
-                    }
-                    break;
-                }
-                default:
-                    throw new IllegalArgumentException("Unexpected document type: " + application.getDocumentType());
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-            addTableRow(table, "Error:", "Could not read form data for " + application.getDocumentType());
-        }
-
-        document.add(table);
-
-        // Approval Section
-        document.add(new Paragraph("\n\nAPPROVED BY:").setTextAlignment(TextAlignment.RIGHT));
-        document.add(new Paragraph("\n\n\nSignature: ________________________").setTextAlignment(TextAlignment.RIGHT));
-
-        document.close();
-        return baos.toByteArray();
-    }
+		CertificateTemplate<?> template = templates.get(application.getDocumentType());
+		if (template == null) {
+			throw new IllegalArgumentException("Unexpected document type: " + application.getDocumentType());
+		}
+
+		// Applicant Details (common information)
+		User citizen = application.getApplicant();
+		List<String[]> rows = new ArrayList<>();
+		rows.add(new String[]{"Certificate Number:", application.getId().toString()});
+		rows.add(new String[]{"Full Name:", citizen.getFullName()});
+		rows.add(new String[]{"Aadhar Number:", citizen.getAadharNumber()});
+		rows.add(new String[]{"Certificate Type:", application.getDocumentType().name()});
+		rows.add(new String[]{"Issue Date:", LocalDate.now().format(DATE_FORMATTER)});
+
+		try {
+			rows.addAll(template.resolveFields(application.getFormData()));
+		} catch (IOException e) {
+			logger.warn("Could not read form data of application {}: {}", application.getId(), e.getMessage());
+			rows.add(new String[]{"Error:", "Could not read form data for " + application.getDocumentType()});
+		}
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(template.getBasePdf())), new PdfWriter(baos));
+		Table table = buildDetailsTable(rows, PdfFontFactory.createFont(headerFontProgram), PdfFontFactory.createFont(bodyFontProgram));
+
+		Rectangle tableArea = template.getTableArea();
+		Canvas canvas = new Canvas(pdf.getFirstPage(), tableArea);
+		CanvasRenderer canvasRenderer = new CanvasRenderer(canvas);
+		canvas.setRenderer(canvasRenderer);
+
+		IRenderer tableRenderer = table.createRendererSubTree().setParent(canvasRenderer);
+		LayoutResult fit = tableRenderer.layout(new LayoutContext(new LayoutArea(1, tableArea)));
+		if (fit.getStatus() != LayoutResult.FULL) {
+			// Very long form values: fall back to a free-flowing multi-page layout.
+			canvas.close();
+			pdf.close();
+			return renderFlowing(rows);
+		}
+
+		// Draw what was just laid out instead of adding the table, which would lay it out again.
+		tableRenderer.draw(new DrawContext(pdf, canvas.getPdfCanvas(), pdf.isTagged()));
+		canvas.close();
+		pdf.close();
+		return baos.toByteArray();
+	}
+
+	/**
+	 * Static part of every certificate: the header at the top and the approval
+	 * and signature block at the bottom of the page.
+	 */
+	private byte[] renderBasePage() {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		PdfDocument pdf = new PdfDocument(new PdfWriter(baos));
+		Document document = new Document(pdf, PageSize.A4);
+		document.setMargins(MARGIN, MARGIN, MARGIN, MARGIN);
+
+		PdfFont headerFont = PdfFontFactory.createFont(headerFontProgram);
+		PdfFont bodyFont = PdfFontFactory.createFont(bodyFontProgram);
+		float width = PageSize.A4.getWidth() - 2 * MARGIN;
+
+		document.add(headerParagraph(headerFont));
+		document.add(new Paragraph("APPROVED BY:")
+			.setFont(bodyFont)
+			.setTextAlignment(TextAlignment.RIGHT)
+			.setFixedPosition(MARGIN, MARGIN + 90, width));
+		document.add(new Paragraph("Signature: ________________________")
+			.setFont(bodyFont)
+			.setTextAlignment(TextAlignment.RIGHT)
+			.setFixedPosition(MARGIN, MARGIN + 30, width));
+
+		document.close();
+		return baos.toByteArray();
+	}
+
+	private byte[] renderFlowing(List<String[]> rows) {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		PdfDocument pdf = new PdfDocument(new PdfWriter(baos));
+		Document document = new Document(pdf);
+
+		PdfFont headerFont = PdfFontFactory.createFont(headerFontProgram);
+		PdfFont bodyFont = PdfFontFactory.createFont(bodyFontProgram);
+
+		document.add(headerParagraph(headerFont));
+		document.add(buildDetailsTable(rows, headerFont, bodyFont));
+
+		// Approval Section
+		document.add(new Paragraph("\n\nAPPROVED BY:").setFont(bodyFont).setTextAlignment(TextAlignment.RIGHT));
+		document.add(new Paragraph("\n\n\nSignature: ________________________").setFont(bodyFont).setTextAlignment(TextAlignment.RIGHT));
+
+		document.close();
+		return baos.toByteArray();
+	}
+
+	private Paragraph headerParagraph(PdfFont headerFont) {
+		return new Paragraph("OFFICIAL GOVERNMENT CERTIFICATE")
+			.setFont(headerFont)
+			.setFontSize(18)
+			.setFontColor(ColorConstants.BLUE)
+			.setTextAlignment(TextAlignment.CENTER);
+	}
+
+	private Table buildDetailsTable(List<String[]> rows, PdfFont labelFont, PdfFont valueFont) {
+		Table table = new Table(UnitValue.createPercentArray(new float[]{30, 70}))
+			.setWidth(UnitValue.createPercentValue(80))
+			.setMarginTop(20);
+		for (String[] row : rows) {
+			addTableRow(table, row[0], row[1], labelFont, valueFont);
+		}
+		return table;
+	}
 
 	@Override
-	public byte[] generateDailyReport(LocalDate date) throws IOException {
+	public byte[] generateDailyReport(DailyReportData data) throws IOException {
 		ByteArrayOutputStream baos = new ByteArrayOutputStream();
 		PdfDocument pdf = new PdfDocument(new PdfWriter(baos));
 		Document document = new Document(pdf);
 
-		document.add(new Paragraph("DAILY APPLICATION REPORT").setTextAlignment(TextAlignment.CENTER).setBold()
+		PdfFont headerFont = PdfFontFactory.createFont(headerFontProgram);
+		PdfFont bodyFont = PdfFontFactory.createFont(bodyFontProgram);
+		document.setFont(bodyFont);
 
+		document.add(new Paragraph("DAILY APPLICATION REPORT").setTextAlignment(TextAlignment.CENTER).setFont(headerFont)
 				.setFontSize(16));
 
-		document.add(new Paragraph("Date: " + date.format(DATE_FORMATTER)).setMarginBottom(20));
+		document.add(new Paragraph("Date: " + data.getDate().format(DATE_FORMATTER)).setMarginBottom(20));
+
+		// Applications per document type
+		document.add(sectionTitle("Applications by document type", headerFont));
+		Table byType = reportTable(headerFont, "Type", "Submitted", "Approved", "Rejected", "Changes requested");
+		data.getCountsByType().forEach((type, counts) -> addReportRow(byType, type,
+				counts.getSubmitted(), counts.getApproved(), counts.getRejected(), counts.getChangesRequested()));
+		document.add(byType);
 
-		// Add report content here
-		document.add(new Paragraph("Total applications processed today: [DATA]"));
+		// Backlog
+		document.add(sectionTitle("Desk backlog (at time of generation)", headerFont));
+		Table backlog = reportTable(headerFont, "Desk", "Applications");
+		if (data.getDeskBacklog().isEmpty()) {
+			addReportRow(backlog, "No open applications", 0);
+		}
+		data.getDeskBacklog().forEach((desk, count) -> addReportRow(backlog, desk, count));
+		document.add(backlog);
+
+		// Verifier throughput
+		document.add(sectionTitle("Verifier throughput", headerFont));
+		if (data.getVerifierThroughput().isEmpty()) {
+			document.add(new Paragraph("No verifier actions recorded."));
+		} else {
+			Table throughput = reportTable(headerFont, "Verifier", "Forwarded", "Approved", "Rejected", "Changes requested", "Total");
+			data.getVerifierThroughput().forEach((verifier, activity) -> addReportRow(throughput, verifier,
+					activity.getForwarded(), activity.getApproved(), activity.getRejected(),
+					activity.getChangesRequested(), activity.getTotal()));
+			document.add(throughput);
+		}
+
+		// Resolution time
+		document.add(sectionTitle("Time to resolution", headerFont));
+		document.add(new Paragraph("Applications resolved: " + data.getResolvedCount()));
+		document.add(new Paragraph("Median time to resolution: " + formatDuration(data.getMedianTimeToResolution())));
 
 		document.close();
 		return baos.toByteArray();
 	}
 
-	private void addTableRow(Table table, String label, String value) {
-		table.addCell(new Paragraph(label).setBold());
-		table.addCell(new Paragraph(value != null ? value : "N/A"));
+	private Paragraph sectionTitle(String title, PdfFont headerFont) {
+		return new Paragraph(title).setFont(headerFont).setFontSize(12).setMarginTop(15);
+	}
+
+	private Table reportTable(PdfFont headerFont, String... headers) {
+		Table table = new Table(UnitValue.createPercentArray(headers.length)).useAllAvailableWidth();
+		for (String header : headers) {
+			table.addHeaderCell(new Paragraph(header).setFont(headerFont).setFontSize(10));
+		}
+		return table;
+	}
+
+	private void addReportRow(Table table, String label, long... values) {
+		table.addCell(new Paragraph(label).setFontSize(10));
+		for (long value : values) {
+			table.addCell(new Paragraph(String.valueOf(value)).setFontSize(10).setTextAlignment(TextAlignment.RIGHT));
+		}
+	}
+
+	private String formatDuration(Duration duration) {
+		if (duration == null) {
+			return "N/A";
+		}
+		return String.format("%dd %02dh %02dm", duration.toDays(), duration.toHoursPart(), duration.toMinutesPart());
+	}
+
+	private void addTableRow(Table table, String label, String value, PdfFont labelFont, PdfFont valueFont) {
+		table.addCell(new Paragraph(label).setFont(labelFont));
+		table.addCell(new Paragraph(value != null ? value : "N/A").setFont(valueFont));
 	}
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.sunbeam.service.impl;
+
+import com.sunbeam.dto.StoredObject;
+import com.sunbeam.exception.FileStorageException;
+import com.sunbeam.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Storage mode backed by {@link S3AsyncClient}. Transfers run on the Netty
+ * event loop instead of occupying a thread each, and uploads and downloads
+ * hand their futures back to the caller rather than joining them, so the
+ * request thread is released while S3 works; a semaphore caps the number
+ * of in-flight uploads so a burst of submissions fails fast instead of
+ * queueing unbounded work.
+ */
+@Service
+@ConditionalOnProperty(name = "aws.s3.client-mode", havingValue = "async")
+public class S3AsyncStorageServiceImpl extends AbstractS3StorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3AsyncStorageServiceImpl.class);
+
+    private final S3AsyncClient s3AsyncClient;
+    private final ThreadPoolTaskExecutor s3AsyncExecutor;
+    private final Semaphore inFlightUploads;
+
+    public S3AsyncStorageServiceImpl(S3AsyncClient s3AsyncClient,
+                                     @Qualifier("s3AsyncExecutor") ThreadPoolTaskExecutor s3AsyncExecutor,
+                                     @Value("${aws.s3.async.max-in-flight-uploads:128}") int maxInFlightUploads) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.s3AsyncExecutor = s3AsyncExecutor;
+        this.inFlightUploads = new Semaphore(maxInFlightUploads);
+    }
+
+    @Override
+    protected CompletableFuture<StoredObject> uploadProof(String objectKey, MultipartFile file) {
+        acquireUploadPermit();
+
+        InputStream in;
+        try {
+            in = file.getInputStream();
+        } catch (IOException e) {
+            inFlightUploads.release();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return s3AsyncClient.putObject(
+                        PutObjectRequest.builder()
+                                .bucket(bucketName)
+                                .key(objectKey)
+                                .contentType(file.getContentType())
+                                .acl(ObjectCannedACL.PRIVATE)
+                                .build(),
+                        AsyncRequestBody.fromInputStream(in, file.getSize(), s3AsyncExecutor.getThreadPoolExecutor()))
+                .whenComplete((response, ex) -> {
+                    inFlightUploads.release();
+                    closeQuietly(in);
+                })
+                .thenApply(response -> toStoredObject(objectKey, file));
+    }
+
+    /**
+     * Blocks until the object is stored. Only certificate and report workers
+     * call this, never a request thread.
+     */
+    @Override
+    public void putObject(String objectKey, byte[] content, String contentType) {
+        try {
+            s3AsyncClient.putObject(
+                    PutObjectRequest.builder()
+                            .bucket(bucketName)
+                            .key(objectKey)
+                            .contentType(contentType)
+                            .acl(ObjectCannedACL.PRIVATE)
+                            .build(),
+                    AsyncRequestBody.fromBytes(content)).join();
+        } catch (CompletionException e) {
+            logger.error("Error storing {} in S3: {}", objectKey, e.getMessage(), e);
+            throw new FileStorageException("Failed to store " + objectKey + " in S3.");
+        }
+    }
+
+    /**
+     * Fire and forget: the outcome is only logged.
+     */
+    @Override
+    public void deleteObjects(Collection<String> objectKeys) {
+        if (objectKeys == null || objectKeys.isEmpty()) {
+            return;
+        }
+        List<ObjectIdentifier> identifiers = objectKeys.stream()
+                .map(key -> ObjectIdentifier.builder().key(key).build())
+                .toList();
+        s3AsyncClient.deleteObjects(DeleteObjectsRequest.builder()
+                        .bucket(bucketName)
+                        .delete(Delete.builder().objects(identifiers).quiet(true).build())
+                        .build())
+                .whenComplete((response, ex) -> {
+                    if (ex == null) {
+                        logger.info("Removed {} orphaned object(s) from S3", objectKeys.size());
+                    } else {
+                        // Compensation is best effort; leftovers only cost storage.
+                        logger.error("Failed to remove orphaned objects {} from S3: {}", objectKeys, ex.getMessage(), ex);
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<ResponseInputStream<GetObjectResponse>> getObject(String objectKey, String range) {
+        return s3AsyncClient.getObject(
+                GetObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectKey)
+                        .range(range)
+                        .build(),
+                AsyncResponseTransformer.toBlockingInputStream());
+    }
+
+    /**
+     * Blocks for one metadata round trip; used by the presigned confirmation,
+     * which has no body to stream.
+     */
+    @Override
+    public HeadObjectResponse headObject(String objectKey) {
+        try {
+            return s3AsyncClient.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .build()).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof S3Exception cause && cause.statusCode() == 404) {
+                throw new ResourceNotFoundException("Object not found in storage: " + objectKey);
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Never waits: a request thread blocked here is exactly what the async client is meant to avoid.
+    private void acquireUploadPermit() {
+        if (!inFlightUploads.tryAcquire()) {
+            throw new FileStorageException("Document storage is busy. Please try again shortly.");
+        }
+    }
+
+    private void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close upload stream: {}", e.getMessage());
+        }
+    }
+}
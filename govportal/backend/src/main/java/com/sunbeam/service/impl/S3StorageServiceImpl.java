@@ -0,0 +1,195 @@
+package com.sunbeam.service.impl;
+
+import com.sunbeam.dto.StoredObject;
+import com.sunbeam.exception.FileStorageException;
+import com.sunbeam.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Default storage mode: blocking S3 client, with uploads fanned out on the
+ * proof upload executor.
+ */
+@Service
+@ConditionalOnProperty(name = "aws.s3.client-mode", havingValue = "sync", matchIfMissing = true)
+public class S3StorageServiceImpl extends AbstractS3StorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3StorageServiceImpl.class);
+
+    private final S3Client s3Client;
+    private final Executor uploadExecutor;
+
+    @Value("${app.storage.multipart.threshold:8388608}")
+    private long multipartThreshold;
+
+    @Value("${app.storage.multipart.part-size:5242880}")
+    private int partSize;
+
+    public S3StorageServiceImpl(S3Client s3Client,
+                                @Qualifier("proofUploadExecutor") Executor uploadExecutor) {
+        this.s3Client = s3Client;
+        this.uploadExecutor = uploadExecutor;
+    }
+
+    @Override
+    public void putObject(String objectKey, byte[] content, String contentType) {
+        try {
+            s3Client.putObject(
+                    PutObjectRequest.builder()
+                            .bucket(bucketName)
+                            .key(objectKey)
+                            .contentType(contentType)
+                            .acl(ObjectCannedACL.PRIVATE)
+                            .build(),
+                    RequestBody.fromBytes(content)
+            );
+        } catch (SdkException e) {
+            logger.error("Error storing {} in S3: {}", objectKey, e.getMessage(), e);
+            throw new FileStorageException("Failed to store " + objectKey + " in S3.");
+        }
+    }
+
+    @Override
+    public void deleteObjects(Collection<String> objectKeys) {
+        if (objectKeys == null || objectKeys.isEmpty()) {
+            return;
+        }
+        try {
+            List<ObjectIdentifier> identifiers = objectKeys.stream()
+                    .map(key -> ObjectIdentifier.builder().key(key).build())
+                    .toList();
+            s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                    .bucket(bucketName)
+                    .delete(Delete.builder().objects(identifiers).quiet(true).build())
+                    .build());
+            logger.info("Removed {} orphaned object(s) from S3", objectKeys.size());
+        } catch (S3Exception e) {
+            // Compensation is best effort; leftovers only cost storage.
+            logger.error("Failed to remove orphaned objects {} from S3: {}", objectKeys, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Blocking mode: the request is made on the calling thread and the
+     * returned future is already complete.
+     */
+    @Override
+    public CompletableFuture<ResponseInputStream<GetObjectResponse>> getObject(String objectKey, String range) {
+        try {
+            return CompletableFuture.completedFuture(s3Client.getObject(GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .range(range)
+                    .build()));
+        } catch (SdkException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public HeadObjectResponse headObject(String objectKey) {
+        try {
+            return s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .build());
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                throw new ResourceNotFoundException("Object not found in storage: " + objectKey);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    protected CompletableFuture<StoredObject> uploadProof(String objectKey, MultipartFile file) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                if (file.getSize() >= multipartThreshold) {
+                    putMultipart(objectKey, file);
+                } else {
+                    try (InputStream in = file.getInputStream()) {
+                        s3Client.putObject(
+                                PutObjectRequest.builder()
+                                        .bucket(bucketName)
+                                        .key(objectKey)
+                                        .contentType(file.getContentType())
+                                        .acl(ObjectCannedACL.PRIVATE)
+                                        .build(),
+                                RequestBody.fromInputStream(in, file.getSize())
+                        );
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return toStoredObject(objectKey, file);
+        }, uploadExecutor);
+    }
+
+    /**
+     * Streams a large proof to S3 one part at a time so at most one part per
+     * upload is held in memory.
+     */
+    private void putMultipart(String objectKey, MultipartFile file) throws IOException {
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey)
+                .contentType(file.getContentType())
+                .acl(ObjectCannedACL.PRIVATE)
+                .build()).uploadId();
+
+        try (InputStream in = file.getInputStream()) {
+            List<CompletedPart> parts = new ArrayList<>();
+            byte[] buffer = new byte[partSize];
+            int partNumber = 1;
+            int read;
+            while ((read = in.readNBytes(buffer, 0, partSize)) > 0) {
+                UploadPartResponse part = s3Client.uploadPart(
+                        UploadPartRequest.builder()
+                                .bucket(bucketName)
+                                .key(objectKey)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) read)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, read), read)
+                );
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(part.eTag()).build());
+                partNumber++;
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+        } catch (IOException | RuntimeException e) {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .build());
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.sunbeam.service.impl;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Keeps a few authenticated SMTP connections open between sends.
+ * JavaMailSender connects, upgrades to TLS and logs in for every call; here
+ * a batch is split across the pooled connections and each slice is sent
+ * over one of them, so that handshake is paid once per connection instead
+ * of once per message.
+ *
+ * Connections are recycled after max-messages-per-connection (most providers
+ * cap this) and re-validated with a NOOP when they have been idle. Sends
+ * are throttled to max-per-second across all connections.
+ */
+@Component
+public class SmtpTransportPool implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final ThreadPoolTaskExecutor mailExecutor;
+    private final BlockingQueue<PooledTransport> pool;
+    private final int poolSize;
+
+    @Value("${app.email.smtp.max-messages-per-connection:100}")
+    private int maxMessagesPerConnection;
+
+    @Value("${app.email.smtp.validate-after-idle-ms:30000}")
+    private long validateAfterIdleMs;
+
+    @Value("${app.email.smtp.borrow-timeout-ms:30000}")
+    private long borrowTimeoutMs;
+
+    // minimum spacing between two sends; 0 disables throttling
+    private final long sendIntervalNanos;
+    private long nextSendAt = System.nanoTime();
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Qualifier("mailExecutor") ThreadPoolTaskExecutor mailExecutor,
+                             @Value("${app.email.smtp.pool-size:3}") int poolSize,
+                             @Value("${app.email.smtp.max-per-second:10}") double maxPerSecond) {
+        this.mailSender = mailSender;
+        this.mailExecutor = mailExecutor;
+        this.poolSize = poolSize;
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            pool.add(new PooledTransport());
+        }
+        this.sendIntervalNanos = maxPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / maxPerSecond) : 0;
+    }
+
+    /**
+     * Sends every message and returns the ones that failed with their cause.
+     * The batch is spread over the pooled connections in parallel; messages
+     * that fail do not stop the rest of their slice.
+     */
+    public Map<MimeMessage, Exception> sendAll(List<MimeMessage> messages) {
+        if (messages.isEmpty()) {
+            return Map.of();
+        }
+        int slices = Math.min(poolSize, messages.size());
+        int sliceSize = (messages.size() + slices - 1) / slices;
+
+        List<CompletableFuture<Map<MimeMessage, Exception>>> sends = new ArrayList<>();
+        for (int from = 0; from < messages.size(); from += sliceSize) {
+            List<MimeMessage> slice = messages.subList(from, Math.min(from + sliceSize, messages.size()));
+            sends.add(CompletableFuture.supplyAsync(() -> sendSlice(slice), mailExecutor));
+        }
+
+        Map<MimeMessage, Exception> failures = new IdentityHashMap<>();
+        sends.forEach(send -> failures.putAll(send.join()));
+        return failures;
+    }
+
+    private Map<MimeMessage, Exception> sendSlice(List<MimeMessage> slice) {
+        Map<MimeMessage, Exception> failures = new IdentityHashMap<>();
+        PooledTransport pooled;
+        try {
+            pooled = pool.poll(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            slice.forEach(message -> failures.put(message, e));
+            return failures;
+        }
+        if (pooled == null) {
+            MessagingException busy = new MessagingException("No SMTP connection available");
+            slice.forEach(message -> failures.put(message, busy));
+            return failures;
+        }
+
+        try {
+            for (int i = 0; i < slice.size(); i++) {
+                MimeMessage message = slice.get(i);
+                Transport transport;
+                try {
+                    transport = pooled.ensureConnected();
+                } catch (MessagingException e) {
+                    // Cannot connect: fail the rest of the slice instead of retrying per message.
+                    slice.subList(i, slice.size()).forEach(failed -> failures.put(failed, e));
+                    break;
+                }
+                try {
+                    throttle();
+                    if (message.getSentDate() == null) {
+                        message.setSentDate(new Date());
+                    }
+                    message.saveChanges();
+                    transport.sendMessage(message, message.getAllRecipients());
+                    pooled.sent++;
+                } catch (SendFailedException e) {
+                    // Rejected recipients; the connection itself is fine.
+                    failures.put(message, e);
+                } catch (MessagingException | RuntimeException e) {
+                    failures.put(message, e);
+                    pooled.broken = true;
+                }
+            }
+        } finally {
+            pooled.lastUsedAt = System.currentTimeMillis();
+            pool.add(pooled);
+        }
+        return failures;
+    }
+
+    private void throttle() {
+        if (sendIntervalNanos == 0) {
+            return;
+        }
+        long sendAt;
+        synchronized (this) {
+            sendAt = Math.max(nextSendAt, System.nanoTime());
+            nextSendAt = sendAt + sendIntervalNanos;
+        }
+        long wait;
+        while ((wait = sendAt - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        pool.forEach(PooledTransport::close);
+    }
+
+    /**
+     * One pool slot. Only the thread that borrowed it touches it.
+     */
+    private class PooledTransport {
+
+        private Transport transport;
+        private int sent;
+        private long lastUsedAt;
+        private boolean broken;
+
+        Transport ensureConnected() throws MessagingException {
+            // isConnected() costs a NOOP round trip, so only idle connections are probed.
+            boolean reconnect = transport == null || broken || sent >= maxMessagesPerConnection
+                    || (System.currentTimeMillis() - lastUsedAt > validateAfterIdleMs && !transport.isConnected());
+            if (reconnect) {
+                close();
+                transport = mailSender.getSession().getTransport(protocol());
+                transport.connect(mailSender.getHost(), mailSender.getPort(),
+                        mailSender.getUsername(), mailSender.getPassword());
+                sent = 0;
+                broken = false;
+            }
+            lastUsedAt = System.currentTimeMillis();
+            return transport;
+        }
+
+        private String protocol() {
+            // Same fallback as JavaMailSenderImpl#connectTransport
+            String protocol = mailSender.getProtocol();
+            if (protocol == null) {
+                protocol = mailSender.getSession().getProperty("mail.transport.protocol");
+            }
+            return protocol != null ? protocol : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+        }
+
+        void close() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                logger.debug("Failed to close SMTP connection: {}", e.getMessage());
+            }
+            transport = null;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import com.sunbeam.exception.UserNotFoundException;
 import com.sunbeam.model.ApiResponse;
 import com.sunbeam.model.User;
 import com.sunbeam.repository.UserRepository;
+import com.sunbeam.security.PrincipalCache;
 import com.sunbeam.security.SecurityUtils;
 import com.sunbeam.service.UserService;
 
@@ -19,7 +20,6 @@ import lombok.RequiredArgsConstructor;
 
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.util.List;
@@ -37,13 +37,11 @@ public class UserServiceImpl implements UserService {
 	@Autowired
 	SecurityUtils securityUtils;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserResponse getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user =  userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("User not logged in"));
-        return mapToUserResponse(user);
+        return mapToUserResponse(securityUtils.getCurrentUser());
     }
 
     @Override
@@ -60,7 +58,9 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public ApiResponse updateUserProfile(@Valid UserUpdateRequest request) {
-        User existingUser = securityUtils.getCurrentUser();
+        // The current user may be a shared cached instance, so edit a fresh copy.
+        User existingUser = userRepository.findById(securityUtils.getCurrentUser().getId())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         // Manually update all updatable fields to avoid accidental overwrites
         existingUser.setFirstName(request.getFirstName());
@@ -77,6 +77,7 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.save(existingUser);
+        principalCache.invalidate(existingUser.getEmail());
 
         return new ApiResponse("User Profile Updated Successfully");
     }
@@ -114,7 +115,8 @@ public class UserServiceImpl implements UserService {
 
     @Override
 	public void changePassword(ChangePasswordRequest request) {
-			User user = securityUtils.getCurrentUser();
+			User user = userRepository.findById(securityUtils.getCurrentUser().getId())
+					.orElseThrow(() -> new ResourceNotFoundException("User not found"));
 			
 //			String existingPassword = passwordEncoder.encode(request.getCurrentPassword());
 			if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
@@ -124,7 +126,9 @@ public class UserServiceImpl implements UserService {
 			
 
 			user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+			user.setTokenEpoch(user.getTokenEpoch() + 1);
 		    userRepository.save(user);
+		    principalCache.invalidate(user.getEmail());
 		
 	}
 
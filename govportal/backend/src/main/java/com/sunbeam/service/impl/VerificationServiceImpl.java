@@ -1,5 +1,8 @@
 package com.sunbeam.service.impl;
 
+import com.sunbeam.dto.ApplicationCounts;
+import com.sunbeam.dto.FileStream;
+import com.sunbeam.dto.response.CursorPage;
 import com.sunbeam.dto.response.DocumentApplicationDetailsResponse;
 import com.sunbeam.dto.response.DocumentApplicationResponse;
 import com.sunbeam.dto.response.DocumentProofResponse;
@@ -8,17 +11,21 @@ import com.sunbeam.exception.*;
 import com.sunbeam.model.*;
 import com.sunbeam.model.DocumentApplication.ApplicationStatus;
 import com.sunbeam.repository.DocumentApplicationRepository;
-import com.sunbeam.repository.DocumentProofRepository;
 import com.sunbeam.repository.UserRepository;
 import com.sunbeam.security.SecurityUtils;
 import com.sunbeam.service.AuditService;
+import com.sunbeam.service.CertificateJobService;
 import com.sunbeam.service.DocumentService;
 import com.sunbeam.service.EmailService;
 import com.sunbeam.service.VerificationService;
+import com.sunbeam.service.WorkflowCounterService;
+import com.sunbeam.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.core.io.UrlResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -28,13 +35,20 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.IOException;
 import java.net.MalformedURLException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -46,11 +60,26 @@ public class VerificationServiceImpl implements VerificationService {
 	private final SecurityUtils securityUtils;
 	private final AuditService auditService;
 	private final ModelMapper modelMapper;
-	private final PdfGeneratorServiceImpl pdfService;
 	private final DocumentService documentService;
 	private final EmailService emailService;
-	@Autowired
-    private DocumentProofRepository documentProofRepository;
+	private final CertificateJobService certificateJobService;
+	private final WorkflowCounterService workflowCounterService;
+	private final TransactionTemplate transactionTemplate;
+
+	private static final int MAX_QUEUE_PAGE_SIZE = 100;
+
+	// Statuses an application can have while it waits on DESK_1 or DESK_2
+	private static final Set<ApplicationStatus> REVIEWABLE_STATUSES =
+			EnumSet.of(ApplicationStatus.PENDING, ApplicationStatus.UNDER_REVIEW, ApplicationStatus.REAPPLIED);
+
+	@Value("${app.verifier.claim.lease-ms:900000}")
+	private long claimLeaseMs;
+
+	@Value("${app.verifier.claim.max-per-verifier:10}")
+	private int maxClaimsPerVerifier;
+
+	@Value("${app.workflow.optimistic-retry.max-attempts:3}")
+	private int maxTransitionAttempts;
 
 	@Override
 	public ResponseEntity<DocumentApplicationResponse> getDocumentApplicationById(Long id) {
@@ -60,30 +89,16 @@ public class VerificationServiceImpl implements VerificationService {
 	}
 	
 	/**
-     * Retrieves a document proof as a Spring Resource for serving.
-     * This method handles finding the document proof by ID, loading the file
-     * from the local file system, and performing necessary checks.
+     * Opens a document proof for streaming to a verifier.
      *
      * @param documentProofId The ID of the document proof.
-     * @return A Spring Resource representing the file.
-     * @throws ResourceNotFoundException If the document proof or the file is not found.
-     * @throws IOException If there's an error loading the file from the file system.
-     */
-	public Resource viewDocumentProof(Long documentProofId) throws IOException {
-		return documentService.viewDocumentProof(documentProofId);
-    }
-	
-	/**
-     * Retrieves the content type of a document proof.
-     *
-     * @param documentProofId The ID of the document proof.
-     * @return The content type string (e.g., "application/pdf").
+     * @param range An HTTP byte range, or null for the whole file.
+     * @return The open file stream once storage answered; the caller must consume and close it.
      * @throws ResourceNotFoundException If the document proof is not found.
      */
-    public String getDocumentProofContentType(Long documentProofId) {
-        DocumentProof documentProof = documentProofRepository.findById(documentProofId)
-                .orElseThrow(() -> new ResourceNotFoundException("DocumentProof not found with ID: " + documentProofId));
-        return documentProof.getContentType();
+	@Override
+	public CompletableFuture<FileStream> openDocumentProof(Long documentProofId, String range) {
+		return documentService.openDocumentProof(documentProofId, range);
     }
 	
 	
@@ -105,11 +120,81 @@ public class VerificationServiceImpl implements VerificationService {
 		return applicationsList.map(app -> modelMapper.map(app, DocumentApplicationResponse.class));
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPage<DocumentApplicationResponse> getPendingQueue(String cursor, int size) {
+		return getDeskQueue(deskOf(securityUtils.getCurrentUser()), cursor, size);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPage<DocumentApplicationResponse> getDeskQueue(String desk, String cursor, int size) {
+		int pageSize = Math.max(1, Math.min(size, MAX_QUEUE_PAGE_SIZE));
+		CursorCodec.Cursor after = CursorCodec.decode(cursor);
+
+		List<DocumentApplication> rows = documentRepository.findDeskQueuePage(desk,
+				after != null ? after.timestamp() : null,
+				after != null ? after.id() : null,
+				PageRequest.of(0, pageSize + 1));
+
+		return CursorPage.of(rows, pageSize,
+				app -> modelMapper.map(app, DocumentApplicationResponse.class),
+				app -> CursorCodec.encode(app.getSubmissionDate(), app.getId()));
+	}
+
+	@Override
+	@Transactional
+	public List<DocumentApplicationResponse> claimNextApplications(int count) {
+		User verifier = securityUtils.getCurrentUser();
+		String desk = deskOf(verifier);
+		LocalDateTime now = LocalDateTime.now();
+
+		List<DocumentApplication> held = documentRepository.findActiveClaims(verifier.getId(), now);
+		int limit = Math.min(count, maxClaimsPerVerifier - held.size());
+		if (limit > 0) {
+			LocalDateTime expiresAt = now.plus(Duration.ofMillis(claimLeaseMs));
+			for (DocumentApplication application : documentRepository.lockClaimable(desk, now, limit)) {
+				application.setClaimedByUserId(verifier.getId());
+				application.setClaimExpiresAt(expiresAt);
+			}
+			held = documentRepository.findActiveClaims(verifier.getId(), now);
+		}
+		return held.stream()
+				.map(app -> modelMapper.map(app, DocumentApplicationResponse.class))
+				.collect(Collectors.toList());
+	}
+
 	@Override
 	@Transactional
+	public DocumentApplicationResponse renewClaim(Long applicationId) {
+		User verifier = securityUtils.getCurrentUser();
+		LocalDateTime now = LocalDateTime.now();
+		int renewed = documentRepository.renewClaim(applicationId, verifier.getId(), now,
+				now.plus(Duration.ofMillis(claimLeaseMs)));
+		if (renewed == 0) {
+			throw new WorkflowException("You do not hold an active claim on application " + applicationId);
+		}
+		return modelMapper.map(getApplicationById(applicationId), DocumentApplicationResponse.class);
+	}
+
+	@Override
+	@Transactional
+	public void releaseClaim(Long applicationId) {
+		User verifier = securityUtils.getCurrentUser();
+		documentRepository.releaseClaim(applicationId, verifier.getId());
+	}
+
+	@Override
 	public DocumentApplicationResponse approveApplication(Long applicationId, String remarks) {
+		return transitionWithRetry(() -> approve(applicationId, remarks));
+	}
+
+	private DocumentApplicationResponse approve(Long applicationId, String remarks) {
 	    DocumentApplication application = getApplicationById(applicationId);
 	    User verifier = securityUtils.getCurrentUser();
+	    requireClaim(application, verifier);
+	    String fromDesk = application.getCurrentDesk();
+	    ApplicationStatus fromStatus = application.getStatus();
 
 	    String emailSubject = "GovPortal Application Status Update";
 
@@ -118,9 +203,11 @@ public class VerificationServiceImpl implements VerificationService {
 
 	        application.setCurrentDesk("DESK_2");
 	        application.setApprovedBy(verifier);
+	        clearClaim(application);
 //	        application.setStatus(DocumentApplication.ApplicationStatus.UNDER_REVIEW);
 
 	        documentRepository.save(application);
+	        workflowCounterService.recordTransition(application, fromDesk, fromStatus);
 	        auditService.logActivity("MOVED_TO_DESK_2", "Application moved to Desk 2 by " + verifier.getEmail());
 
 	        // ✅ Send email
@@ -134,27 +221,19 @@ public class VerificationServiceImpl implements VerificationService {
 	        application.setStatus(DocumentApplication.ApplicationStatus.APPROVED);
 	        application.setResolvedDate(LocalDateTime.now());
 	        application.setApprovedBy(verifier);
+	        clearClaim(application);
 
-	        DocumentApplication reviewedApplication = documentRepository.save(application);
-
-	        try {
-	            byte[] pdf = pdfService.generateCertificate(reviewedApplication);
-	            application.setCertificatePdf(pdf);
-	        } catch (IOException e) {
-	            auditService.logActivity("PDF_GENERATION_FAILED", "Failed for Application " + applicationId);
-	            throw new RuntimeException("Failed to generate certificate PDF", e);
-	        }
+	        documentRepository.save(application);
+	        workflowCounterService.recordTransition(application, fromDesk, fromStatus);
+	        // Rendering happens in the background; the applicant is emailed once the certificate is ready.
+	        certificateJobService.enqueue(applicationId);
 
 	        auditService.logActivity("DOCUMENT_APPROVED",
 	                String.format("Application %d approved by %s. Remarks: %s",
 	                        applicationId, verifier.getEmail(), remarks));
 
-	        // ✅ Send email
-	        notifyApplicant(application, emailSubject,
-	                "Your application has been approved. You can now download your certificate from your account.");
-
 	    } else {
-	        throw new UnsupportedOperationException("Invalid application state or verifier role.");
+	        throw new WorkflowException("Application " + applicationId + " is not on your desk; it may already have been moved.");
 	    }
 
 	    return modelMapper.map(application, DocumentApplicationResponse.class);
@@ -162,17 +241,26 @@ public class VerificationServiceImpl implements VerificationService {
 
 
 	@Override
-	@Transactional
 	public DocumentApplicationResponse rejectApplication(Long applicationId, String remarks) {
+		return transitionWithRetry(() -> reject(applicationId, remarks));
+	}
+
+	private DocumentApplicationResponse reject(Long applicationId, String remarks) {
 	    DocumentApplication application = getApplicationById(applicationId);
 	    User currentUser = securityUtils.getCurrentUser();
+	    requireClaim(application, currentUser);
+	    requireOnDesk(application);
+	    String fromDesk = application.getCurrentDesk();
+	    ApplicationStatus fromStatus = application.getStatus();
 
 	    application.setCurrentDesk("APPLICANT");
 	    application.setStatus(DocumentApplication.ApplicationStatus.REJECTED);
 	    application.setResolvedDate(LocalDateTime.now());
 	    application.setRejectionReason(remarks);
+	    clearClaim(application);
 
 	    DocumentApplication rejectedApplication = documentRepository.save(application);
+	    workflowCounterService.recordTransition(rejectedApplication, fromDesk, fromStatus);
 
 	    auditService.logActivity("DOCUMENT_REJECTED",
 	            String.format("Application %d rejected by %s. Remarks: %s",
@@ -188,14 +276,23 @@ public class VerificationServiceImpl implements VerificationService {
 
 
 	@Override
-	@Transactional
 	public DocumentApplicationResponse requestChanges(Long applicationId, String remarks) {
+		return transitionWithRetry(() -> requestChangesOnce(applicationId, remarks));
+	}
+
+	private DocumentApplicationResponse requestChangesOnce(Long applicationId, String remarks) {
 		DocumentApplication application = getApplicationById(applicationId);
 		User currentUser = securityUtils.getCurrentUser();
+		requireClaim(application, currentUser);
+		requireOnDesk(application);
+		String fromDesk = application.getCurrentDesk();
+		ApplicationStatus fromStatus = application.getStatus();
 		application.setStatus(DocumentApplication.ApplicationStatus.CHANGES_REQUESTED);
 		application.setCurrentDesk("APPLICANT");
 		application.setRejectionReason(remarks);
+		clearClaim(application);
 		DocumentApplication savedApp = documentRepository.save(application);
+		workflowCounterService.recordTransition(savedApp, fromDesk, fromStatus);
 
 		auditService.logActivity("CHANGES_REQUESTED",
 				String.format("Changes requested for application %d by %s. Remarks: %s", applicationId,
@@ -208,17 +305,11 @@ public class VerificationServiceImpl implements VerificationService {
 	@Override
 	@Transactional(readOnly = true)
 	public VerificationStatsResponse getVerificationStats() {
-		User currentUser = securityUtils.getCurrentUser();
-//        long totalAssigned = documentRepository.countByAssignedVerifiersContaining(currentUser);
-		long pending = documentRepository.countByStatus(ApplicationStatus.PENDING);
-		long applicationsOnDESK1 = documentRepository.countByCurrentDesk("DESK_1");
-		long applicationOnDESK2 = documentRepository.countByCurrentDesk("DESK_2");
-		long approved = documentRepository.countByStatus(ApplicationStatus.APPROVED);
-		long totalAppliedApplications = documentRepository.count();
-		long rejected = documentRepository.countByStatus(ApplicationStatus.REJECTED);
-		return VerificationStatsResponse.builder().totalApplied(totalAppliedApplications)
-				.countOnDesk1(applicationsOnDESK1).countOnDesk2(applicationOnDESK2).pending(pending).approved(approved)
-				.rejected(rejected).build();
+		ApplicationCounts counts = workflowCounterService.getCounts();
+		return VerificationStatsResponse.builder().totalApplied(counts.getTotal())
+				.countOnDesk1(counts.desk("DESK_1")).countOnDesk2(counts.desk("DESK_2"))
+				.pending(counts.status(ApplicationStatus.PENDING)).approved(counts.status(ApplicationStatus.APPROVED))
+				.rejected(counts.status(ApplicationStatus.REJECTED)).build();
 	}
 
 	
@@ -228,6 +319,79 @@ public class VerificationServiceImpl implements VerificationService {
 				.orElseThrow(() -> new ResourceNotFoundException("Application not found"));
 	}
 
+	/**
+	 * Runs a workflow transition in its own transaction. If another request
+	 * changed the application in between, the version check fails at commit
+	 * and everything the attempt wrote (counters, outbox mail, certificate
+	 * job, COMMIT-durability audit entries) rolls back with it, so the
+	 * transition is re-run against fresh state: either it still applies, or
+	 * its desk and claim checks reject it with a 409. Gives up after
+	 * app.workflow.optimistic-retry.max-attempts.
+	 */
+	private DocumentApplicationResponse transitionWithRetry(Supplier<DocumentApplicationResponse> transition) {
+		for (int attempt = 1; ; attempt++) {
+			try {
+				return transactionTemplate.execute(status -> transition.get());
+			} catch (OptimisticLockingFailureException e) {
+				if (attempt >= maxTransitionAttempts) {
+					throw new WorkflowException("The application was changed by someone else. Reload and try again.");
+				}
+				try {
+					Thread.sleep(ThreadLocalRandom.current().nextLong(10, 50L * attempt));
+				} catch (InterruptedException interrupted) {
+					Thread.currentThread().interrupt();
+					throw new WorkflowException("Interrupted while retrying the transition");
+				}
+			}
+		}
+	}
+
+	// Admins have no desk of their own; they read the desk queues through /api/admin/applications/desk{1,2}/queue.
+	private String deskOf(User verifier) {
+		if (verifier.getDesignation() == User.Designation.JUNIOR_VERIFIER) {
+			return "DESK_1";
+		} else if (verifier.getDesignation() == User.Designation.SENIOR_VERIFIER) {
+			return "DESK_2";
+		}
+		throw new ForbiddenAccessException("Only junior and senior verifiers have a desk queue");
+	}
+
+	/**
+	 * Verifiers may only act on applications they hold an unexpired claim on.
+	 * Admins are not bound to a desk, but still cannot act on an application
+	 * a verifier is currently reviewing.
+	 */
+	private void requireClaim(DocumentApplication application, User user) {
+		LocalDateTime now = LocalDateTime.now();
+		boolean claimActive = application.getClaimExpiresAt() != null && !application.getClaimExpiresAt().isBefore(now);
+		boolean heldByUser = claimActive && Objects.equals(application.getClaimedByUserId(), user.getId());
+		if (heldByUser || (user.getRole() == User.Role.ADMIN && !claimActive)) {
+			return;
+		}
+		throw new WorkflowException(claimActive
+				? "Application " + application.getId() + " is being reviewed by another verifier"
+				: "Claim application " + application.getId() + " from your queue before acting on it");
+	}
+
+	/**
+	 * Rejecting or sending back only applies to an application still under
+	 * review on DESK_1 or DESK_2. Without this an admin could reject an
+	 * approved application, and a retried transition would be applied twice.
+	 */
+	private static void requireOnDesk(DocumentApplication application) {
+		boolean onDesk = "DESK_1".equals(application.getCurrentDesk()) || "DESK_2".equals(application.getCurrentDesk());
+		if (!onDesk || !REVIEWABLE_STATUSES.contains(application.getStatus())) {
+			throw new WorkflowException("Application " + application.getId()
+					+ " is not under review on a desk; it may already have been decided.");
+		}
+	}
+
+	// The application leaves the desk, so the review lease ends with the transition.
+	private static void clearClaim(DocumentApplication application) {
+		application.setClaimedByUserId(null);
+		application.setClaimExpiresAt(null);
+	}
+
 	@Override
 	public ResponseEntity<Page<DocumentApplicationResponse>> getApprovedApplicationsByVerifier(Pageable pageable,
 			long verifierId) {
@@ -0,0 +1,210 @@
+package com.sunbeam.service.impl;
+
+import com.sunbeam.dto.ApplicationCounts;
+import com.sunbeam.dto.WorkflowTransitionEvent;
+import com.sunbeam.model.DocumentApplication;
+import com.sunbeam.model.DocumentApplication.ApplicationStatus;
+import com.sunbeam.model.DocumentApplication.DocumentType;
+import com.sunbeam.service.WorkflowCounterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps workflow_counters in step with document_applications.
+ *
+ * Every change is a single INSERT ... ON DUPLICATE KEY UPDATE adding +1/-1
+ * to a row, executed on the caller's connection so it commits atomically
+ * with the application change. Increments are applied by MySQL under the
+ * row lock, so concurrent updates from any number of nodes never lose a
+ * count. When a transition touches two rows they are always updated in
+ * key order, so two transitions cannot deadlock on each other.
+ *
+ * Each change is also published as a WorkflowTransitionEvent for live
+ * dashboards.
+ *
+ * Reconciliation takes no row locks. Both tables are read in one
+ * REPEATABLE READ snapshot; since counters and applications always commit
+ * together, the difference seen in that snapshot is the real drift. Each
+ * difference is then added as a delta in its own short transaction, the
+ * same way a transition does, so it commutes with any transition that
+ * commits in between instead of overwriting it.
+ */
+@Service
+public class WorkflowCounterServiceImpl implements WorkflowCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowCounterServiceImpl.class);
+
+    private static final String LOCK_NAME = "govportal.workflow_counters_reconcile";
+    private static final String NO_DESK = "";
+
+    private static final String UPSERT_DELTA =
+            "INSERT INTO workflow_counters (desk, status, document_type, application_count, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE application_count = application_count + VALUES(application_count), " +
+            "updated_at = VALUES(updated_at)";
+
+    private record Key(String desk, ApplicationStatus status, DocumentType documentType) {
+
+        static final Comparator<Key> ORDER = Comparator.comparing(Key::desk)
+                .thenComparing(Key::status)
+                .thenComparing(Key::documentType);
+
+        static Key of(String desk, ApplicationStatus status, DocumentType documentType) {
+            return new Key(desk != null ? desk : NO_DESK, status, documentType);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public WorkflowCounterServiceImpl(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void recordSubmission(DocumentApplication application) {
+        requireTransaction();
+        applyDelta(key(application), 1);
+        publish(application, null, null);
+    }
+
+    @Override
+    public void recordTransition(DocumentApplication application, String fromDesk, ApplicationStatus fromStatus) {
+        requireTransaction();
+        Key from = Key.of(fromDesk, fromStatus, application.getDocumentType());
+        Key to = key(application);
+        if (from.equals(to)) {
+            return;
+        }
+        if (Key.ORDER.compare(from, to) < 0) {
+            applyDelta(from, -1);
+            applyDelta(to, 1);
+        } else {
+            applyDelta(to, 1);
+            applyDelta(from, -1);
+        }
+        publish(application, fromDesk, fromStatus);
+    }
+
+    @Override
+    public ApplicationCounts getCounts() {
+        List<Object[]> rows = jdbcTemplate.query(
+                "SELECT status, desk, SUM(application_count) FROM workflow_counters GROUP BY status, desk",
+                (rs, rowNum) -> new Object[]{
+                        ApplicationStatus.valueOf(rs.getString(1)),
+                        NO_DESK.equals(rs.getString(2)) ? null : rs.getString(2),
+                        rs.getLong(3)});
+        return ApplicationCounts.fromRows(rows);
+    }
+
+    /**
+     * Seeds the counters on first start and corrects anything that drifted
+     * while the application was down.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reconcile();
+    }
+
+    @Override
+    @Scheduled(cron = "${app.workflow.counters.reconcile-cron:0 */15 * * * *}")
+    public void reconcile() {
+        // GET_LOCK is tied to the connection, so the reconciliation transactions run on the one that took it.
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            SingleConnectionDataSource dataSource = new SingleConnectionDataSource(connection, true);
+            JdbcTemplate locked = new JdbcTemplate(dataSource);
+            Integer acquired = locked.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class, LOCK_NAME);
+            if (acquired == null || acquired != 1) {
+                logger.info("Workflow counter reconciliation is already running on another node");
+                return null;
+            }
+            try {
+                int corrected = reconcile(locked, new DataSourceTransactionManager(dataSource));
+                if (corrected > 0) {
+                    logger.warn("Workflow counters drifted; corrected {} counter(s)", corrected);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Workflow counter reconciliation failed: {}", e.getMessage(), e);
+            } finally {
+                locked.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, LOCK_NAME);
+            }
+            return null;
+        });
+    }
+
+    private int reconcile(JdbcTemplate jdbc, DataSourceTransactionManager transactionManager) {
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshot.setReadOnly(true);
+        Map<Key, Long> drift = snapshot.execute(status -> readDrift(jdbc));
+
+        TransactionTemplate correction = new TransactionTemplate(transactionManager);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Map.Entry<Key, Long> entry : drift.entrySet()) {
+            Key key = entry.getKey();
+            correction.executeWithoutResult(status -> jdbc.update(UPSERT_DELTA, key.desk(), key.status().name(),
+                    key.documentType().name(), entry.getValue(), now));
+        }
+        return drift.size();
+    }
+
+    /**
+     * @return actual minus stored count for every key that differs, in key order
+     */
+    private Map<Key, Long> readDrift(JdbcTemplate jdbc) {
+        Map<Key, Long> drift = new TreeMap<>(Key.ORDER);
+        jdbc.query("SELECT current_desk, status, document_type, COUNT(*) FROM document_applications " +
+                        "GROUP BY status, current_desk, document_type",
+                rs -> {
+                    drift.merge(Key.of(rs.getString(1), ApplicationStatus.valueOf(rs.getString(2)),
+                            DocumentType.valueOf(rs.getString(3))), rs.getLong(4), Long::sum);
+                });
+        jdbc.query("SELECT desk, status, document_type, application_count FROM workflow_counters",
+                rs -> {
+                    drift.merge(new Key(rs.getString(1), ApplicationStatus.valueOf(rs.getString(2)),
+                            DocumentType.valueOf(rs.getString(3))), -rs.getLong(4), Long::sum);
+                });
+        drift.values().removeIf(delta -> delta == 0);
+        return drift;
+    }
+
+    private void applyDelta(Key key, long delta) {
+        jdbcTemplate.update(UPSERT_DELTA, key.desk(), key.status().name(), key.documentType().name(), delta,
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private void publish(DocumentApplication application, String fromDesk, ApplicationStatus fromStatus) {
+        eventPublisher.publishEvent(new WorkflowTransitionEvent(application.getId(), application.getDocumentType(),
+                fromDesk, fromStatus, application.getCurrentDesk(), application.getStatus(), LocalDateTime.now()));
+    }
+
+    private static Key key(DocumentApplication application) {
+        return Key.of(application.getCurrentDesk(), application.getStatus(), application.getDocumentType());
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Workflow counters must be updated inside the workflow transaction");
+        }
+    }
+}
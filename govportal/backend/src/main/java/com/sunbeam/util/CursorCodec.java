@@ -0,0 +1,45 @@
+package com.sunbeam.util;
+
+import com.sunbeam.exception.InvalidOperationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque cursors for keyset pagination. A cursor is the sort position of the
+ * last row of a page, a (timestamp, id) pair, so the next page starts right
+ * after it with an index range scan instead of skipping OFFSET rows.
+ */
+public final class CursorCodec {
+
+    private CursorCodec() {
+    }
+
+    public record Cursor(LocalDateTime timestamp, long id) {
+    }
+
+    public static String encode(LocalDateTime timestamp, long id) {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for a missing cursor, i.e. the first page.
+     *
+     * @throws InvalidOperationException if the cursor was not produced by {@link #encode}
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidOperationException("Invalid cursor");
+        }
+    }
+}
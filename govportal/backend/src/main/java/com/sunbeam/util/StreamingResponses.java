@@ -0,0 +1,97 @@
+package com.sunbeam.util;
+
+import com.sunbeam.dto.FileStream;
+import com.sunbeam.exception.ForbiddenAccessException;
+import com.sunbeam.exception.RangeNotSatisfiableException;
+import com.sunbeam.exception.ResourceNotFoundException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletionException;
+
+public final class StreamingResponses {
+
+    private StreamingResponses() {
+    }
+
+    /**
+     * Only single "bytes=" ranges are passed through to storage; anything else
+     * is ignored and the whole file is served, as RFC 9110 allows.
+     */
+    public static String singleByteRange(String rangeHeader) {
+        if (rangeHeader == null || !rangeHeader.startsWith("bytes=") || rangeHeader.indexOf(',') >= 0) {
+            return null;
+        }
+        return rangeHeader;
+    }
+
+    /**
+     * Builds a 200/206 response that copies the stream straight to the servlet
+     * output, so memory use does not depend on the file size.
+     */
+    public static ResponseEntity<StreamingResponseBody> inline(FileStream file) {
+        return stream(file, "inline");
+    }
+
+    /**
+     * Same as {@link #inline(FileStream)}, but asks the browser to save the file.
+     */
+    public static ResponseEntity<StreamingResponseBody> attachment(FileStream file) {
+        return stream(file, "attachment");
+    }
+
+    /**
+     * Maps a failed open, thrown directly or carried by the storage future,
+     * to the status the download endpoints answer with. Anything unexpected
+     * is rethrown for the global exception handler.
+     */
+    public static ResponseEntity<StreamingResponseBody> failure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof ResourceNotFoundException) {
+            return ResponseEntity.notFound().build();
+        }
+        if (cause instanceof ForbiddenAccessException) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (cause instanceof RangeNotSatisfiableException) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */*")
+                    .build();
+        }
+        if (cause instanceof IOException) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+        throw error instanceof CompletionException completion ? completion : new CompletionException(cause);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> stream(FileStream file, String disposition) {
+        String contentType = file.getContentType();
+        if (contentType == null || contentType.isBlank()) {
+            contentType = "application/octet-stream"; // Fallback
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity
+                .status(file.isPartial() ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition + "; filename=\"" + file.getFileName() + "\"");
+        if (file.getContentLength() != null) {
+            response.contentLength(file.getContentLength());
+        }
+        if (file.isPartial()) {
+            response.header(HttpHeaders.CONTENT_RANGE, file.getContentRange());
+        }
+
+        StreamingResponseBody body = out -> {
+            try (InputStream in = file.getContent()) {
+                in.transferTo(out);
+            }
+        };
+        return response.body(body);
+    }
+}
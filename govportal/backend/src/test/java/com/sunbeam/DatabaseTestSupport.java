@@ -0,0 +1,147 @@
+package com.sunbeam;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import com.sunbeam.model.CustomUserDetails;
+import com.sunbeam.model.DocumentApplication;
+import com.sunbeam.model.User;
+import com.sunbeam.repository.DocumentApplicationRepository;
+import com.sunbeam.repository.UserRepository;
+import com.sunbeam.service.WorkflowCounterService;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Base class for tests that need the real schema and real InnoDB locking
+ * (FOR UPDATE, SKIP LOCKED, optimistic version checks across transactions).
+ *
+ * Starts one embedded MariaDB for the whole test run and points the full
+ * application context at it; Hibernate creates the schema as it does in
+ * production (ddl-auto=update). External services get harmless settings:
+ * S3 is never called by these tests, and outbox mail is polled rarely and
+ * goes to a closed local port.
+ */
+@SpringBootTest
+public abstract class DatabaseTestSupport {
+
+    private static final String DATABASE = "govportal_test";
+
+    private static final DB db = start();
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected DocumentApplicationRepository documentRepository;
+
+    @Autowired
+    protected WorkflowCounterService workflowCounterService;
+
+    @Autowired
+    protected TransactionTemplate transactionTemplate;
+
+    private static DB start() {
+        try {
+            DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+            config.setPort(0);
+            // The embedded server refuses to run as root unless told to.
+            config.addArg("--user=root");
+            DB started = DB.newEmbeddedDB(config.build());
+            started.start();
+            started.createDB(DATABASE);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    started.stop();
+                } catch (Exception e) {
+                    // already gone
+                }
+            }));
+            return started;
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not start embedded MariaDB", e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        // Connector/J, as in production, speaks the MariaDB protocol fine.
+        registry.add("spring.datasource.url",
+                () -> "jdbc:mysql://localhost:" + db.getConfiguration().getPort() + "/" + DATABASE + "?nullCatalogMeansCurrent=true");
+        registry.add("spring.datasource.username", () -> "root");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.show-sql", () -> "false");
+
+        registry.add("aws.s3.access.key.id", () -> "test");
+        registry.add("aws.s3.secret.access.key", () -> "test");
+        registry.add("aws.region", () -> "us-east-1");
+        registry.add("aws.s3.bucket-name", () -> "govportal-test");
+
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", () -> "1");
+        registry.add("spring.mail.username", () -> "test");
+        registry.add("spring.mail.password", () -> "test");
+        registry.add("app.email.outbox.poll-interval-ms", () -> "3600000");
+        registry.add("app.certificate.worker.poll-interval-ms", () -> "3600000");
+        registry.add("app.storage.certificate-migration.enabled", () -> "false");
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     * Starts a new request on the current thread authenticated as the given
+     * user, the way JwtAuthFilter does. The request is new so that the
+     * request-scoped current user is resolved again.
+     */
+    protected void signIn(User user) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        CustomUserDetails details = new CustomUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+    }
+
+    protected User newUser(User.Role role, User.Designation designation) {
+        return userRepository.save(User.builder()
+                .firstName("Test")
+                .lastName(role.name())
+                .email(UUID.randomUUID() + "@govportal.test")
+                .password("not-used")
+                .role(role)
+                .designation(designation)
+                .enabled(true)
+                .build());
+    }
+
+    /**
+     * Submits an application the way DocumentService does, counters included.
+     */
+    protected DocumentApplication newApplication(User applicant, DocumentApplication.DocumentType documentType) {
+        return transactionTemplate.execute(status -> {
+            DocumentApplication saved = documentRepository.save(DocumentApplication.builder()
+                    .applicant(applicant)
+                    .documentType(documentType)
+                    .purpose("test")
+                    .status(DocumentApplication.ApplicationStatus.PENDING)
+                    .submissionDate(LocalDateTime.now())
+                    .currentDesk("DESK_1")
+                    .build());
+            workflowCounterService.recordSubmission(saved);
+            return saved;
+        });
+    }
+}
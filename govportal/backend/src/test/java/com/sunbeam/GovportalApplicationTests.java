@@ -1,10 +1,8 @@
 package com.sunbeam;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class GovportalApplicationTests {
+class GovportalApplicationTests extends DatabaseTestSupport {
 
 	@Test
 	void contextLoads() {
@@ -0,0 +1,53 @@
+package com.sunbeam.config;
+
+import com.sunbeam.DatabaseTestSupport;
+import com.sunbeam.model.DocumentApplication.DocumentType;
+import com.sunbeam.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CertificateReadyBackfillRunnerTest extends DatabaseTestSupport {
+
+    @Autowired
+    private CertificateReadyBackfillRunner runner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void movesOnlyCertifiedApplicationsAndIsIdempotent() {
+        User citizen = newUser(User.Role.CITIZEN, null);
+        LocalDateTime approvedAt = LocalDateTime.of(2024, 5, 6, 7, 8, 9);
+        Long certified = approved(newApplication(citizen, DocumentType.CASTE).getId(), "certificates/legacy.pdf", approvedAt);
+        Long generating = approved(newApplication(citizen, DocumentType.CASTE).getId(), null, approvedAt);
+
+        runner.run(null);
+
+        Map<String, Object> moved = row(certified);
+        assertThat(moved.get("current_desk")).isEqualTo("CERTIFICATE_READY");
+        assertThat(moved.get("certificate_generated_at")).isEqualTo(approvedAt);
+        assertThat(row(generating).get("current_desk")).isEqualTo("UNDER_CERTIFICATE_GENERATION");
+
+        long version = (Long) moved.get("version");
+        runner.run(null);
+        assertThat(row(certified).get("version")).isEqualTo(version);
+    }
+
+    private Long approved(Long id, String certificateKey, LocalDateTime resolvedAt) {
+        jdbcTemplate.update("UPDATE document_applications SET status = 'APPROVED', " +
+                "current_desk = 'UNDER_CERTIFICATE_GENERATION', certificate_key = ?, resolved_date = ? WHERE id = ?",
+                certificateKey, resolvedAt, id);
+        return id;
+    }
+
+    private Map<String, Object> row(Long id) {
+        return jdbcTemplate.queryForMap("SELECT current_desk, certificate_generated_at, version " +
+                "FROM document_applications WHERE id = ?", id);
+    }
+}
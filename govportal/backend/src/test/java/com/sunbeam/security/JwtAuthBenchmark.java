@@ -0,0 +1,93 @@
+package com.sunbeam.security;
+
+import com.sunbeam.model.CustomUserDetails;
+import com.sunbeam.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT cost in JwtAuthFilter, before and after the token was
+ * parsed once with a cached key and parser.
+ *
+ * "legacy" reproduces the old path: extractUsername, then validateToken
+ * (extractUsername + isTokenExpired), each parse Base64-decoding the secret
+ * and building a new JwtParser. "singleParse" is what the filter does now.
+ * The user lookup is left out; it is the same in both and covered by the
+ * principal cache.
+ *
+ * Not a unit test. Run it by hand after mvn test-compile:
+ * <pre>
+ * mvn -q dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.sunbeam.security.JwtAuthBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "4cf7e4da6f1cc97a1fbafb744222be5a76ab3ca9388ff2fd9673a1f6cebfb86f";
+
+    private JwtUtil jwtUtil;
+    private CustomUserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 86_400_000L);
+        jwtUtil.init();
+
+        User user = User.builder()
+                .id(42L)
+                .email("citizen@example.com")
+                .role(User.Role.CITIZEN)
+                .build();
+        userDetails = new CustomUserDetails(user);
+        token = jwtUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        String username = legacyParse(token).getSubject();
+        boolean usernameMatches = legacyParse(token).getSubject().equals(userDetails.getUsername());
+        boolean expired = legacyParse(token).getExpiration().before(new Date());
+        return username != null && usernameMatches && !expired;
+    }
+
+    @Benchmark
+    public boolean singleParse() {
+        Claims claims = jwtUtil.parseClaims(token);
+        return claims.getSubject() != null && jwtUtil.validateToken(claims, userDetails);
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtAuthBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
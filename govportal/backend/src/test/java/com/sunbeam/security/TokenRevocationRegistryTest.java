@@ -0,0 +1,92 @@
+package com.sunbeam.security;
+
+import com.sunbeam.DatabaseTestSupport;
+import com.sunbeam.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationRegistryTest extends DatabaseTestSupport {
+
+    @Autowired
+    private TokenRevocationRegistry registry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void securityRelevantChangesRevokeIssuedTokensAndOthersDoNot() {
+        User verifier = newUser(User.Role.VERIFIER, User.Designation.SENIOR_VERIFIER);
+        User citizen = newUser(User.Role.CITIZEN, null);
+        User verifierToken = tokenOf(verifier);
+        User citizenToken = tokenOf(citizen);
+        registry.refresh();
+        assertThat(registry.isRevoked(verifierToken)).isFalse();
+
+        // A profile edit leaves the epoch and issued tokens alone.
+        update(citizen.getId(), user -> user.setAddress("Somewhere"));
+        update(verifier.getId(), user -> user.setDesignation(User.Designation.SENIOR_VERIFIER));
+        assertThat(revocations(citizen)).isZero();
+        assertThat(revocations(verifier)).isZero();
+
+        // A demoted verifier's token still says SENIOR_VERIFIER, so it must stop working.
+        update(verifier.getId(), user -> user.setDesignation(User.Designation.JUNIOR_VERIFIER));
+        registry.refresh();
+        assertThat(registry.isRevoked(verifierToken)).isTrue();
+        assertThat(registry.isRevoked(tokenOf(userRepository.findById(verifier.getId()).orElseThrow()))).isFalse();
+        assertThat(registry.isRevoked(citizenToken)).isFalse();
+
+        update(citizen.getId(), user -> user.setBlocked(true));
+        registry.refresh();
+        assertThat(registry.isRevoked(citizenToken)).isTrue();
+
+        // Unblocking bumps again, so nodes drop principals they cached while the user was blocked.
+        User blocked = userRepository.findById(citizen.getId()).orElseThrow();
+        update(citizen.getId(), user -> user.setBlocked(false));
+        registry.refresh();
+        assertThat(registry.isStale(blocked)).isTrue();
+
+        User deleted = userRepository.findById(verifier.getId()).orElseThrow();
+        transactionTemplate.executeWithoutResult(status -> userRepository.deleteById(verifier.getId()));
+        registry.refresh();
+        assertThat(registry.isRevoked(deleted)).isTrue();
+    }
+
+    @Test
+    void purgeKeepsRevocationsThatCanStillMatter() {
+        User citizen = newUser(User.Role.CITIZEN, null);
+        registry.record(citizen.getId(), 1);
+        registry.record(citizen.getId(), 2);
+        jdbcTemplate.update("UPDATE token_revocations SET revoked_at = NOW(3) - INTERVAL 400 DAY " +
+                "WHERE user_id = ? AND token_epoch = 1", citizen.getId());
+
+        registry.purge();
+
+        assertThat(jdbcTemplate.queryForList("SELECT token_epoch FROM token_revocations WHERE user_id = ?",
+                Long.class, citizen.getId())).containsExactly(2L);
+    }
+
+    private void update(Long userId, Consumer<User> change) {
+        transactionTemplate.executeWithoutResult(status -> change.accept(userRepository.findById(userId).orElseThrow()));
+    }
+
+    private int revocations(User user) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM token_revocations WHERE user_id = ?",
+                Integer.class, user.getId());
+    }
+
+    // What TokenUserDetails rebuilds from a token issued to this user now.
+    private static User tokenOf(User user) {
+        return User.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .designation(user.getDesignation())
+                .tokenEpoch(user.getTokenEpoch())
+                .build();
+    }
+}
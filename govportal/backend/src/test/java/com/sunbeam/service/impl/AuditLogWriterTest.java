@@ -0,0 +1,72 @@
+package com.sunbeam.service.impl;
+
+import com.sunbeam.DatabaseTestSupport;
+import com.sunbeam.dto.response.AuditWriterStatsResponse;
+import com.sunbeam.model.AuditLog;
+import com.sunbeam.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLogWriterTest extends DatabaseTestSupport {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void commitModeWritesOnlyWhenTheTransactionCommits() {
+        AuditLogWriter writer = new AuditLogWriter(jdbcTemplate, "commit", 10);
+        User admin = newUser(User.Role.ADMIN, null);
+        String rolledBack = UUID.randomUUID().toString();
+        String committed = UUID.randomUUID().toString();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            writer.write(event(admin, rolledBack));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> writer.write(event(admin, committed)));
+
+        assertThat(rows(rolledBack)).isZero();
+        assertThat(rows(committed)).isEqualTo(1);
+        assertThat(writer.getStats().getWritten()).isEqualTo(1);
+    }
+
+    @Test
+    void asyncModeDropsEventsWhenTheQueueIsFull() {
+        // Not started, so nothing drains the queue.
+        AuditLogWriter writer = new AuditLogWriter(jdbcTemplate, "async", 2);
+        User admin = newUser(User.Role.ADMIN, null);
+
+        for (int i = 0; i < 3; i++) {
+            writer.write(event(admin, "outside a transaction"));
+        }
+        transactionTemplate.executeWithoutResult(status -> writer.write(event(admin, "after commit")));
+
+        AuditWriterStatsResponse stats = writer.getStats();
+        assertThat(stats.getEnqueued()).isEqualTo(2);
+        assertThat(stats.getDropped()).isEqualTo(2);
+        assertThat(stats.getQueueDepth()).isEqualTo(2);
+        assertThat(stats.getWritten()).isZero();
+    }
+
+    @Test
+    void actionTypeIsResolvedIgnoringCase() {
+        assertThat(AuditLog.ActionType.fromAction("document_approved")).isEqualTo(AuditLog.ActionType.DOCUMENT_APPROVE);
+        assertThat(AuditLog.ActionType.fromAction("DOCUMENT_APPROVE")).isEqualTo(AuditLog.ActionType.DOCUMENT_APPROVE);
+        assertThat(AuditLog.ActionType.fromAction("no such action")).isEqualTo(AuditLog.ActionType.OTHER);
+        assertThat(AuditLog.ActionType.fromAction(null)).isEqualTo(AuditLog.ActionType.OTHER);
+    }
+
+    private static AuditLogWriter.AuditEvent event(User user, String details) {
+        return new AuditLogWriter.AuditEvent(user.getId(), "TEST", details, LocalDateTime.now(), AuditLog.ActionType.OTHER);
+    }
+
+    private int rows(String details) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_log WHERE details = ?", Integer.class, details);
+    }
+}
@@ -0,0 +1,58 @@
+package com.sunbeam.service.impl;
+
+import com.sunbeam.DatabaseTestSupport;
+import com.sunbeam.model.CertificateJob;
+import com.sunbeam.model.DocumentApplication.DocumentType;
+import com.sunbeam.model.User;
+import com.sunbeam.repository.CertificateJobRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CertificateJobServiceTest extends DatabaseTestSupport {
+
+    @Autowired
+    private CertificateJobServiceImpl certificateJobService;
+
+    @Autowired
+    private CertificateJobRepository jobRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void jobForApplicationThatLeftCertificateGenerationIsFinishedWithoutEffects() throws Exception {
+        User citizen = newUser(User.Role.CITIZEN, null);
+        Long id = newApplication(citizen, DocumentType.INCOME).getId();
+        // Approved, then rejected before the worker got to it.
+        transactionTemplate.executeWithoutResult(status -> certificateJobService.enqueue(id));
+        jdbcTemplate.update("UPDATE document_applications SET status = 'REJECTED', current_desk = 'APPLICANT' WHERE id = ?", id);
+
+        certificateJobService.dispatchDueJobs();
+        CertificateJob job = awaitFinished(id);
+
+        assertThat(job.getStatus()).isEqualTo(CertificateJob.Status.DONE);
+        assertThat(job.getLastError()).startsWith("Skipped");
+        assertThat(jdbcTemplate.queryForMap("SELECT current_desk, certificate_key FROM document_applications WHERE id = ?", id))
+                .containsEntry("current_desk", "APPLICANT")
+                .containsEntry("certificate_key", null);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox WHERE recipient = ?",
+                Integer.class, citizen.getEmail())).isZero();
+    }
+
+    private CertificateJob awaitFinished(Long applicationId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            CertificateJob job = jobRepository.findByApplicationId(applicationId).orElseThrow();
+            if (job.getStatus() == CertificateJob.Status.DONE || job.getStatus() == CertificateJob.Status.FAILED) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Certificate job for application " + applicationId + " never finished");
+    }
+}
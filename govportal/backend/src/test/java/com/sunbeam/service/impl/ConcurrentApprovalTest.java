@@ -0,0 +1,190 @@
+package com.sunbeam.service.impl;
+
+import com.sunbeam.DatabaseTestSupport;
+import com.sunbeam.dto.response.DocumentApplicationResponse;
+import com.sunbeam.exception.WorkflowException;
+import com.sunbeam.model.DocumentApplication;
+import com.sunbeam.model.DocumentApplication.DocumentType;
+import com.sunbeam.model.User;
+import com.sunbeam.service.VerificationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two transitions of the same application racing each other, e.g. a
+ * double-submitted request. Both read the same version before either
+ * commits; one must win and the other must end in a 409 without leaving
+ * anything behind.
+ */
+class ConcurrentApprovalTest extends DatabaseTestSupport {
+
+    @Autowired
+    private VerificationService verificationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentApprovalsCommitOnceAndRejectTheOther() throws Exception {
+        User citizen = newUser(User.Role.CITIZEN, null);
+        User verifier = newUser(User.Role.VERIFIER, User.Designation.JUNIOR_VERIFIER);
+        DocumentApplication application = newApplication(citizen, DocumentType.BIRTH);
+        Long id = application.getId();
+        jdbcTemplate.update("UPDATE document_applications SET claimed_by_user_id = ?, claim_expires_at = ? WHERE id = ?",
+                verifier.getId(), LocalDateTime.now().plusMinutes(15), id);
+
+        long versionBefore = version(id);
+        long desk1Before = counter("DESK_1", DocumentType.BIRTH);
+        long desk2Before = counter("DESK_2", DocumentType.BIRTH);
+
+        Outcome outcome = race(() -> {
+            signIn(verifier);
+            return verificationService.approveApplication(id, "ok");
+        });
+
+        assertThat(outcome.committed()).singleElement()
+                .extracting(DocumentApplicationResponse::getCurrentDesk).isEqualTo("DESK_2");
+        // The loser failed its version check, was re-run against the committed state and refused there.
+        assertThat(outcome.failures()).singleElement().isInstanceOf(WorkflowException.class)
+                .extracting(Throwable::getMessage).asString().startsWith("Claim application " + id);
+
+        assertThat(version(id)).isEqualTo(versionBefore + 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT current_desk FROM document_applications WHERE id = ?",
+                String.class, id)).isEqualTo("DESK_2");
+        // The losing attempt rolled back its counter deltas and its outbox mail.
+        assertThat(counter("DESK_1", DocumentType.BIRTH)).isEqualTo(desk1Before - 1);
+        assertThat(counter("DESK_2", DocumentType.BIRTH)).isEqualTo(desk2Before + 1);
+        assertThat(outboxMails(citizen)).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentAdminRejectionsApplyOnce() throws Exception {
+        User citizen = newUser(User.Role.CITIZEN, null);
+        User admin = newUser(User.Role.ADMIN, null);
+        Long id = newApplication(citizen, DocumentType.BIRTH).getId();
+
+        long versionBefore = version(id);
+        long desk1Before = counter("DESK_1", DocumentType.BIRTH);
+        long rejectedBefore = counter("APPLICANT", "REJECTED", DocumentType.BIRTH);
+
+        Outcome outcome = race(() -> {
+            signIn(admin);
+            return verificationService.rejectApplication(id, "incomplete");
+        });
+
+        assertThat(outcome.committed()).hasSize(1);
+        // Admins hold no claim, so the retried loser is refused by the desk check instead.
+        assertThat(outcome.failures()).singleElement().isInstanceOf(WorkflowException.class)
+                .extracting(Throwable::getMessage).asString().contains("not under review on a desk");
+
+        assertThat(version(id)).isEqualTo(versionBefore + 1);
+        assertThat(counter("DESK_1", DocumentType.BIRTH)).isEqualTo(desk1Before - 1);
+        assertThat(counter("APPLICANT", "REJECTED", DocumentType.BIRTH)).isEqualTo(rejectedBefore + 1);
+        assertThat(outboxMails(citizen)).isEqualTo(1);
+
+        // Once decided, the application cannot be rejected or sent back again.
+        signIn(admin);
+        assertThatThrownBy(() -> verificationService.rejectApplication(id, "again"))
+                .isInstanceOf(WorkflowException.class);
+        assertThatThrownBy(() -> verificationService.requestChanges(id, "again"))
+                .isInstanceOf(WorkflowException.class);
+    }
+
+    private record Outcome(List<DocumentApplicationResponse> committed, List<Throwable> failures) {
+    }
+
+    /**
+     * Runs the transition twice concurrently. The source counter row is held
+     * so that both attempts read the application before either can commit,
+     * then both queue up behind it and are let go together.
+     */
+    private Outcome race(Supplier<DocumentApplicationResponse> transition) throws Exception {
+        CountDownLatch counterLocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> blocker = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT application_count FROM workflow_counters " +
+                    "WHERE desk = 'DESK_1' AND status = 'PENDING' AND document_type = 'BIRTH' FOR UPDATE");
+            counterLocked.countDown();
+            await(release);
+        }));
+        List<CompletableFuture<DocumentApplicationResponse>> attempts = new ArrayList<>();
+        try {
+            assertThat(counterLocked.await(30, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 2; i++) {
+                attempts.add(CompletableFuture.supplyAsync(transition));
+            }
+            awaitCounterWaits(2);
+        } finally {
+            release.countDown();
+        }
+        blocker.get(30, TimeUnit.SECONDS);
+
+        List<DocumentApplicationResponse> committed = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (CompletableFuture<DocumentApplicationResponse> attempt : attempts) {
+            try {
+                committed.add(attempt.get(60, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                failures.add(e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause());
+            }
+        }
+        return new Outcome(committed, failures);
+    }
+
+    // A transaction blocked on its first write is not listed in INNODB_TRX yet, so look at the running statements.
+    private void awaitCounterWaits(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            Integer waiting = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.PROCESSLIST " +
+                    "WHERE COMMAND = 'Query' AND INFO LIKE 'INSERT INTO workflow_counters%'", Integer.class);
+            if (waiting != null && waiting >= expected) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Transitions never queued behind the counter lock");
+    }
+
+    private long version(Long applicationId) {
+        return jdbcTemplate.queryForObject("SELECT version FROM document_applications WHERE id = ?",
+                Long.class, applicationId);
+    }
+
+    private long counter(String desk, DocumentType documentType) {
+        return counter(desk, "PENDING", documentType);
+    }
+
+    private long counter(String desk, String status, DocumentType documentType) {
+        List<Long> counts = jdbcTemplate.queryForList("SELECT application_count FROM workflow_counters " +
+                "WHERE desk = ? AND status = ? AND document_type = ?", Long.class, desk, status, documentType.name());
+        return counts.isEmpty() ? 0 : counts.get(0);
+    }
+
+    private int outboxMails(User recipient) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox WHERE recipient = ?",
+                Integer.class, recipient.getEmail());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
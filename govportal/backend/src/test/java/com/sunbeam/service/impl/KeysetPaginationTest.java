@@ -0,0 +1,98 @@
+package com.sunbeam.service.impl;
+
+import com.sunbeam.DatabaseTestSupport;
+import com.sunbeam.dto.response.AuditLogResponse;
+import com.sunbeam.dto.response.CursorPage;
+import com.sunbeam.dto.response.DocumentApplicationResponse;
+import com.sunbeam.model.DocumentApplication;
+import com.sunbeam.model.User;
+import com.sunbeam.service.AuditService;
+import com.sunbeam.service.VerificationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Page boundaries that fall between rows with the same timestamp: the id
+ * tie-breaker in the cursor must neither repeat nor skip any of them.
+ */
+class KeysetPaginationTest extends DatabaseTestSupport {
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private VerificationService verificationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void auditSearchPagesThroughEqualTimestampsNewestIdFirst() {
+        User admin = newUser(User.Role.ADMIN, null);
+        Timestamp sameInstant = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("INSERT INTO audit_log (user_id, action, details, `timestamp`, action_type) " +
+                    "VALUES (?, 'TEST', ?, ?, 'OTHER')", admin.getId(), "entry " + i, sameInstant);
+            ids.add(jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class));
+        }
+        ids.sort(Comparator.reverseOrder());
+
+        List<Long> seen = readAll(cursor -> auditService.searchAuditLogs(admin.getId(), null, null, null, cursor, 2),
+                AuditLogResponse::getId);
+
+        assertThat(seen).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    void deskQueuePagesThroughEqualSubmissionDatesOldestIdFirst() {
+        User citizen = newUser(User.Role.CITIZEN, null);
+        String desk = "KEYSET_" + UUID.randomUUID().toString().substring(0, 8);
+        LocalDateTime sameInstant = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // Counted like any submission, so later reconciliations find nothing to correct.
+            ids.add(transactionTemplate.execute(status -> {
+                DocumentApplication saved = documentRepository.save(DocumentApplication.builder()
+                        .applicant(citizen)
+                        .documentType(DocumentApplication.DocumentType.INCOME)
+                        .purpose("test")
+                        .status(DocumentApplication.ApplicationStatus.PENDING)
+                        .submissionDate(sameInstant)
+                        .currentDesk(desk)
+                        .build());
+                workflowCounterService.recordSubmission(saved);
+                return saved.getId();
+            }));
+        }
+
+        List<Long> seen = readAll(cursor -> verificationService.getDeskQueue(desk, cursor, 2),
+                DocumentApplicationResponse::getId);
+
+        assertThat(seen).containsExactlyElementsOf(ids);
+    }
+
+    private static <T> List<Long> readAll(Function<String, CursorPage<T>> fetch, Function<T, Long> idOf) {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<T> page = fetch.apply(cursor);
+            assertThat(page.getContent()).hasSizeLessThanOrEqualTo(2);
+            page.getContent().forEach(row -> seen.add(idOf.apply(row)));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+}
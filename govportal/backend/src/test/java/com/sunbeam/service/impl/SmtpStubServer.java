@@ -0,0 +1,139 @@
+package com.sunbeam.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.io.OutputStreamWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal SMTP server for tests: plain text, AUTH PLAIN/LOGIN accepted for
+ * any credentials, and RCPT refused (550) for addresses starting with
+ * "rejected". Records every connection, login and accepted message.
+ */
+class SmtpStubServer implements AutoCloseable {
+
+    record Delivery(int connection, String recipient, long receivedAtNanos) {
+    }
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService threads = Executors.newCachedThreadPool();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger logins = new AtomicInteger();
+    private final List<Delivery> deliveries = new CopyOnWriteArrayList<>();
+
+    SmtpStubServer() throws IOException {
+        serverSocket = new ServerSocket(0);
+        threads.execute(this::acceptLoop);
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    int connections() {
+        return connections.get();
+    }
+
+    int logins() {
+        return logins.get();
+    }
+
+    List<Delivery> deliveries() {
+        return deliveries;
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                int connection = connections.incrementAndGet();
+                threads.execute(() -> serve(socket, connection));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket, int connection) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+            reply(out, "220 stub ESMTP");
+            List<String> recipients = new CopyOnWriteArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO")) {
+                    reply(out, "250-stub\r\n250-AUTH PLAIN LOGIN\r\n250 OK");
+                } else if (command.startsWith("HELO")) {
+                    reply(out, "250 stub");
+                } else if (command.startsWith("AUTH PLAIN")) {
+                    if (command.trim().equals("AUTH PLAIN")) {
+                        reply(out, "334 ");
+                        in.readLine();
+                    }
+                    logins.incrementAndGet();
+                    reply(out, "235 Authenticated");
+                } else if (command.startsWith("AUTH LOGIN")) {
+                    reply(out, "334 VXNlcm5hbWU6");
+                    in.readLine();
+                    reply(out, "334 UGFzc3dvcmQ6");
+                    in.readLine();
+                    logins.incrementAndGet();
+                    reply(out, "235 Authenticated");
+                } else if (command.startsWith("MAIL FROM")) {
+                    recipients.clear();
+                    reply(out, "250 OK");
+                } else if (command.startsWith("RCPT TO")) {
+                    String recipient = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                    if (recipient.startsWith("rejected")) {
+                        reply(out, "550 No such user");
+                    } else {
+                        recipients.add(recipient);
+                        reply(out, "250 OK");
+                    }
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        // message body is not needed
+                    }
+                    long now = System.nanoTime();
+                    recipients.forEach(recipient -> deliveries.add(new Delivery(connection, recipient, now)));
+                    reply(out, "250 Queued");
+                } else if (command.equals("RSET")) {
+                    recipients.clear();
+                    reply(out, "250 OK");
+                } else if (command.equals("NOOP")) {
+                    reply(out, "250 OK");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // client went away
+        }
+    }
+
+    private static void reply(Writer out, String response) throws IOException {
+        out.write(response + "\r\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        threads.shutdownNow();
+    }
+}
@@ -0,0 +1,164 @@
+package com.sunbeam.service.impl;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs SmtpTransportPool against a local SMTP stub with AUTH, so connection
+ * setup, recycling and throttling can be observed from the server side.
+ */
+class SmtpTransportPoolTest {
+
+    private SmtpStubServer server;
+    private JavaMailSenderImpl mailSender;
+    private ThreadPoolTaskExecutor mailExecutor;
+    private SmtpTransportPool pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new SmtpStubServer();
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(server.port());
+        mailSender.setUsername("mailer");
+        mailSender.setPassword("secret");
+        Properties properties = new Properties();
+        properties.put("mail.smtp.auth", "true");
+        mailSender.setJavaMailProperties(properties);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (pool != null) {
+            pool.destroy();
+        }
+        if (mailExecutor != null) {
+            mailExecutor.shutdown();
+        }
+        server.close();
+    }
+
+    @Test
+    void reusesOneAuthenticatedConnectionForManyMessages() throws Exception {
+        createPool(1, 0, 100);
+
+        Map<MimeMessage, Exception> failures = pool.sendAll(messages(20));
+
+        assertThat(failures).isEmpty();
+        assertThat(server.deliveries()).hasSize(20);
+        assertThat(server.connections()).isEqualTo(1);
+        assertThat(server.logins()).isEqualTo(1);
+
+        // A later batch keeps using the pooled connection.
+        pool.sendAll(messages(5));
+        assertThat(server.deliveries()).hasSize(25);
+        assertThat(server.connections()).isEqualTo(1);
+    }
+
+    @Test
+    void recyclesConnectionAfterMaxMessages() throws Exception {
+        createPool(1, 0, 5);
+
+        Map<MimeMessage, Exception> failures = pool.sendAll(messages(12));
+
+        assertThat(failures).isEmpty();
+        assertThat(server.connections()).isEqualTo(3);
+        assertThat(server.logins()).isEqualTo(3);
+        Map<Integer, Long> perConnection = server.deliveries().stream()
+                .collect(Collectors.groupingBy(SmtpStubServer.Delivery::connection, Collectors.counting()));
+        assertThat(perConnection.values()).containsExactlyInAnyOrder(5L, 5L, 2L);
+    }
+
+    @Test
+    void spreadsBatchOverPooledConnections() throws Exception {
+        createPool(3, 0, 100);
+
+        Map<MimeMessage, Exception> failures = pool.sendAll(messages(30));
+
+        assertThat(failures).isEmpty();
+        assertThat(server.deliveries()).hasSize(30);
+        assertThat(server.connections()).isEqualTo(3);
+    }
+
+    @Test
+    void throttlesToMaxPerSecondAcrossConnections() throws Exception {
+        createPool(3, 20, 100);
+
+        long start = System.nanoTime();
+        Map<MimeMessage, Exception> failures = pool.sendAll(messages(21));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(failures).isEmpty();
+        // 21 sends at 20/s need at least 20 intervals of 50 ms, however many connections there are.
+        assertThat(elapsed).isGreaterThanOrEqualTo(Duration.ofMillis(1000));
+        List<Long> receivedAt = server.deliveries().stream()
+                .map(SmtpStubServer.Delivery::receivedAtNanos)
+                .sorted()
+                .toList();
+        assertThat(Duration.ofNanos(receivedAt.get(receivedAt.size() - 1) - receivedAt.get(0)))
+                .isGreaterThanOrEqualTo(Duration.ofMillis(950));
+    }
+
+    @Test
+    void rejectedRecipientOnlyFailsItsOwnMessage() throws Exception {
+        createPool(1, 0, 100);
+        List<MimeMessage> batch = messages(5);
+        MimeMessage rejected = message("rejected@example.com");
+        batch.add(2, rejected);
+
+        Map<MimeMessage, Exception> failures = pool.sendAll(batch);
+
+        assertThat(failures).containsOnlyKeys(rejected);
+        assertThat(failures.get(rejected)).isInstanceOf(SendFailedException.class);
+        assertThat(server.deliveries()).hasSize(5);
+        // The connection survives the rejection.
+        assertThat(server.connections()).isEqualTo(1);
+    }
+
+    private void createPool(int poolSize, double maxPerSecond, int maxMessagesPerConnection) {
+        mailExecutor = new ThreadPoolTaskExecutor();
+        mailExecutor.setCorePoolSize(poolSize);
+        mailExecutor.setMaxPoolSize(poolSize);
+        mailExecutor.initialize();
+
+        pool = new SmtpTransportPool(mailSender, mailExecutor, poolSize, maxPerSecond);
+        ReflectionTestUtils.setField(pool, "maxMessagesPerConnection", maxMessagesPerConnection);
+        ReflectionTestUtils.setField(pool, "validateAfterIdleMs", 30_000L);
+        ReflectionTestUtils.setField(pool, "borrowTimeoutMs", 5_000L);
+    }
+
+    private List<MimeMessage> messages(int count) throws MessagingException {
+        List<MimeMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(message("citizen" + i + "@example.com"));
+        }
+        return messages;
+    }
+
+    private MimeMessage message(String to) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        message.setFrom(new InternetAddress("noreply@govportal.test"));
+        message.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress(to));
+        message.setSubject("GovPortal Application Status Update");
+        message.setText("Your application status changed.");
+        return message;
+    }
+}
@@ -0,0 +1,173 @@
+package com.sunbeam.service.impl;
+
+import com.sunbeam.DatabaseTestSupport;
+import com.sunbeam.dto.response.DocumentApplicationResponse;
+import com.sunbeam.exception.ForbiddenAccessException;
+import com.sunbeam.exception.WorkflowException;
+import com.sunbeam.model.DocumentApplication;
+import com.sunbeam.model.DocumentApplication.DocumentType;
+import com.sunbeam.model.User;
+import com.sunbeam.service.VerificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerifierClaimTest extends DatabaseTestSupport {
+
+    @Autowired
+    private VerificationService verificationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User citizen;
+
+    @BeforeEach
+    void setUp() {
+        citizen = newUser(User.Role.CITIZEN, null);
+    }
+
+    @Test
+    void concurrentClaimersSkipRowsLockedByEachOther() throws Exception {
+        Set<Long> queued = new HashSet<>();
+        for (int i = 0; i < 6; i++) {
+            queued.add(atHeadOfQueue(newApplication(citizen, DocumentType.INCOME), "DESK_1").getId());
+        }
+        User first = newUser(User.Role.VERIFIER, User.Designation.JUNIOR_VERIFIER);
+        User second = newUser(User.Role.VERIFIER, User.Designation.JUNIOR_VERIFIER);
+
+        CountDownLatch firstClaimed = new CountDownLatch(1);
+        CountDownLatch secondDone = new CountDownLatch(1);
+        CompletableFuture<List<DocumentApplicationResponse>> firstClaim = CompletableFuture.supplyAsync(() -> {
+            signIn(first);
+            // Keeps the claimed rows locked until the second verifier has claimed.
+            return transactionTemplate.execute(status -> {
+                List<DocumentApplicationResponse> claimed = verificationService.claimNextApplications(3);
+                firstClaimed.countDown();
+                await(secondDone);
+                return claimed;
+            });
+        });
+        List<DocumentApplicationResponse> secondClaimed;
+        try {
+            assertThat(firstClaimed.await(30, TimeUnit.SECONDS)).isTrue();
+            secondClaimed = CompletableFuture.supplyAsync(() -> {
+                signIn(second);
+                return verificationService.claimNextApplications(3);
+            }).get(10, TimeUnit.SECONDS);
+        } finally {
+            secondDone.countDown();
+        }
+
+        Set<Long> firstIds = ids(firstClaim.get(30, TimeUnit.SECONDS));
+        Set<Long> secondIds = ids(secondClaimed);
+        assertThat(firstIds).hasSize(3);
+        assertThat(secondIds).hasSize(3).doesNotContainAnyElementsOf(firstIds);
+        assertThat(queued).containsAll(firstIds).containsAll(secondIds);
+        for (Long id : firstIds) {
+            assertThat(claimedBy(id)).isEqualTo(first.getId());
+        }
+        for (Long id : secondIds) {
+            assertThat(claimedBy(id)).isEqualTo(second.getId());
+        }
+    }
+
+    @Test
+    void expiredClaimCanBeTakenOverAndNoLongerRenewed() {
+        User first = newUser(User.Role.VERIFIER, User.Designation.SENIOR_VERIFIER);
+        User second = newUser(User.Role.VERIFIER, User.Designation.SENIOR_VERIFIER);
+        Long claimedId = atHeadOfQueue(newApplication(citizen, DocumentType.CASTE), "DESK_2").getId();
+
+        signIn(first);
+        assertThat(ids(verificationService.claimNextApplications(1))).containsExactly(claimedId);
+
+        // While the lease runs the application is not offered to anyone else.
+        signIn(second);
+        Set<Long> meanwhile = ids(verificationService.claimNextApplications(1));
+        assertThat(meanwhile).doesNotContain(claimedId);
+        meanwhile.forEach(verificationService::releaseClaim);
+
+        jdbcTemplate.update("UPDATE document_applications SET claim_expires_at = ? WHERE id = ?",
+                LocalDateTime.now().minusMinutes(1), claimedId);
+
+        assertThat(ids(verificationService.claimNextApplications(1))).containsExactly(claimedId);
+        assertThat(claimedBy(claimedId)).isEqualTo(second.getId());
+
+        signIn(first);
+        assertThatThrownBy(() -> verificationService.renewClaim(claimedId)).isInstanceOf(WorkflowException.class);
+        assertThatThrownBy(() -> verificationService.approveApplication(claimedId, "late"))
+                .isInstanceOf(WorkflowException.class);
+    }
+
+    @Test
+    void renewalExtendsOnlyTheHoldersLease() {
+        User holder = newUser(User.Role.VERIFIER, User.Designation.SENIOR_VERIFIER);
+        User other = newUser(User.Role.VERIFIER, User.Designation.SENIOR_VERIFIER);
+        Long claimedId = atHeadOfQueue(newApplication(citizen, DocumentType.DOMICILE), "DESK_2").getId();
+
+        signIn(holder);
+        assertThat(ids(verificationService.claimNextApplications(1))).containsExactly(claimedId);
+        LocalDateTime nearlyExpired = LocalDateTime.now().plusSeconds(5);
+        jdbcTemplate.update("UPDATE document_applications SET claim_expires_at = ? WHERE id = ?",
+                nearlyExpired, claimedId);
+
+        verificationService.renewClaim(claimedId);
+        assertThat(claimExpiresAt(claimedId)).isAfter(nearlyExpired.plusMinutes(1));
+
+        signIn(other);
+        assertThatThrownBy(() -> verificationService.renewClaim(claimedId)).isInstanceOf(WorkflowException.class);
+        assertThat(claimedBy(claimedId)).isEqualTo(holder.getId());
+    }
+
+    @Test
+    void adminHasNoDeskQueue() {
+        signIn(newUser(User.Role.ADMIN, null));
+
+        assertThatThrownBy(() -> verificationService.getPendingQueue(null, 20))
+                .isInstanceOf(ForbiddenAccessException.class);
+        assertThatThrownBy(() -> verificationService.claimNextApplications(1))
+                .isInstanceOf(ForbiddenAccessException.class);
+    }
+
+    // Other tests leave applications on the desks; backdating puts this one at the head of the queue.
+    private DocumentApplication atHeadOfQueue(DocumentApplication application, String desk) {
+        jdbcTemplate.update("UPDATE document_applications SET current_desk = ?, submission_date = ? WHERE id = ?",
+                desk, LocalDateTime.of(2000, 1, 1, 0, 0).plusSeconds(application.getId()), application.getId());
+        return application;
+    }
+
+    private Long claimedBy(Long applicationId) {
+        return jdbcTemplate.queryForObject("SELECT claimed_by_user_id FROM document_applications WHERE id = ?",
+                Long.class, applicationId);
+    }
+
+    private LocalDateTime claimExpiresAt(Long applicationId) {
+        return jdbcTemplate.queryForObject("SELECT claim_expires_at FROM document_applications WHERE id = ?",
+                LocalDateTime.class, applicationId);
+    }
+
+    private static Set<Long> ids(List<DocumentApplicationResponse> applications) {
+        return applications.stream().map(DocumentApplicationResponse::getId).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
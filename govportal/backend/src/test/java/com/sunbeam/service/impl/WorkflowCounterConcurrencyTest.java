@@ -0,0 +1,138 @@
+package com.sunbeam.service.impl;
+
+import com.sunbeam.DatabaseTestSupport;
+import com.sunbeam.model.DocumentApplication;
+import com.sunbeam.model.DocumentApplication.DocumentType;
+import com.sunbeam.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkflowCounterConcurrencyTest extends DatabaseTestSupport {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentTransitionsAndReconciliationKeepCountersExact() throws Exception {
+        User citizen = newUser(User.Role.CITIZEN, null);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            ids.add(newApplication(citizen, DocumentType.values()[i % DocumentType.values().length]).getId());
+        }
+        // Drift the reconciliation has to repair while transitions are running.
+        jdbcTemplate.update("UPDATE workflow_counters SET application_count = application_count + 7 " +
+                "WHERE desk = 'DESK_1' AND status = 'PENDING' AND document_type = 'INCOME'");
+
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        AtomicBoolean transitioning = new AtomicBoolean(true);
+        try {
+            Future<?> reconciler = workers.submit(() -> {
+                while (transitioning.get()) {
+                    workflowCounterService.reconcile();
+                }
+            });
+            List<Future<?>> transitions = new ArrayList<>();
+            for (int worker = 0; worker < 3; worker++) {
+                List<Long> share = ids.subList(worker * ids.size() / 3, (worker + 1) * ids.size() / 3);
+                transitions.add(workers.submit(() -> share.forEach(this::moveToDesk2)));
+            }
+            for (Future<?> transition : transitions) {
+                transition.get(60, TimeUnit.SECONDS);
+            }
+            transitioning.set(false);
+            reconciler.get(60, TimeUnit.SECONDS);
+        } finally {
+            transitioning.set(false);
+            workers.shutdownNow();
+        }
+
+        workflowCounterService.reconcile();
+        assertThat(storedCounts()).isEqualTo(actualCounts());
+    }
+
+    @Test
+    void reconciliationDoesNotWaitForTransitionsInFlight() throws Exception {
+        User citizen = newUser(User.Role.CITIZEN, null);
+        DocumentApplication application = newApplication(citizen, DocumentType.BIRTH);
+        // Other tests edit rows behind the counters' back; correcting that drift would have to wait for the locks below.
+        workflowCounterService.reconcile();
+
+        CountDownLatch transitionWritten = new CountDownLatch(1);
+        CountDownLatch reconciled = new CountDownLatch(1);
+        CompletableFuture<Void> transition = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    moveToDesk2InTransaction(application.getId());
+                    // Holds the counter and application row locks until reconciliation has run.
+                    transitionWritten.countDown();
+                    await(reconciled);
+                }));
+        try {
+            assertThat(transitionWritten.await(30, TimeUnit.SECONDS)).isTrue();
+
+            CompletableFuture<Void> reconciliation = CompletableFuture.runAsync(workflowCounterService::reconcile);
+            reconciliation.get(10, TimeUnit.SECONDS);
+        } finally {
+            reconciled.countDown();
+        }
+        transition.get(30, TimeUnit.SECONDS);
+
+        assertThat(storedCounts()).isEqualTo(actualCounts());
+    }
+
+    private void moveToDesk2(Long applicationId) {
+        transactionTemplate.executeWithoutResult(status -> moveToDesk2InTransaction(applicationId));
+    }
+
+    private void moveToDesk2InTransaction(Long applicationId) {
+        DocumentApplication application = documentRepository.findById(applicationId).orElseThrow();
+        String fromDesk = application.getCurrentDesk();
+        DocumentApplication.ApplicationStatus fromStatus = application.getStatus();
+        application.setCurrentDesk("DESK_2");
+        application.setStatus(DocumentApplication.ApplicationStatus.UNDER_REVIEW);
+        documentRepository.saveAndFlush(application);
+        workflowCounterService.recordTransition(application, fromDesk, fromStatus);
+    }
+
+    private Map<String, Long> actualCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT COALESCE(current_desk, ''), status, document_type, COUNT(*) " +
+                        "FROM document_applications GROUP BY current_desk, status, document_type",
+                rs -> {
+                    counts.merge(rs.getString(1) + "/" + rs.getString(2) + "/" + rs.getString(3), rs.getLong(4), Long::sum);
+                });
+        return counts;
+    }
+
+    private Map<String, Long> storedCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT desk, status, document_type, application_count FROM workflow_counters " +
+                        "WHERE application_count <> 0",
+                rs -> {
+                    counts.put(rs.getString(1) + "/" + rs.getString(2) + "/" + rs.getString(3), rs.getLong(4));
+                });
+        return counts;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}